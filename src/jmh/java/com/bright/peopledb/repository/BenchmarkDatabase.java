@@ -0,0 +1,85 @@
+package com.bright.peopledb.repository;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import com.bright.peopledb.enums.Region;
+import com.bright.peopledb.model.Address;
+import com.bright.peopledb.model.Person;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An in-memory H2 database with the PERSON and ADDRESSES tables, seeded for the benchmarks.
+ */
+final class BenchmarkDatabase {
+
+    public static final String SCHEMA_SQL = """
+    CREATE TABLE ADDRESSES (ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, STREET_ADDRESS VARCHAR(255), ADDRESS2 VARCHAR(255),
+    CITY VARCHAR(255), STATE VARCHAR(255), POSTCODE VARCHAR(255), COUNTY VARCHAR(255), REGION VARCHAR(255), COUNTRY VARCHAR(255));
+    CREATE TABLE PERSON (ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, FIRST_NAME VARCHAR(255), LAST_NAME VARCHAR(255),
+    DOB TIMESTAMP, SALARY DECIMAL(15,2), EMAIL VARCHAR(255), HOME_ADDRESS BIGINT REFERENCES ADDRESSES(ID),
+    BUSINESS_ADDRESS BIGINT REFERENCES ADDRESSES(ID), PARENT_ID BIGINT REFERENCES PERSON(ID));
+    """;
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * @param name a name unique to the benchmark, so forks and benchmarks do not share tables
+     * @return A connection to a freshly created database, with auto commit off
+     */
+    static Connection open(String name) throws SQLException {
+        Connection connection = DriverManager.getConnection("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            statement.execute(SCHEMA_SQL);
+        }
+        connection.setAutoCommit(false);
+        return connection;
+    }
+
+    /**
+     * Saves datasetSize people, every other one with a home address, a business address and two children.
+     * @return The saved people, without their children
+     */
+    static List<Person> seed(PersonRepository repository, Connection connection, int datasetSize) throws SQLException {
+        List<Person> people = new ArrayList<>(datasetSize);
+        for (int i = 0; i < datasetSize; i++) {
+            Person person = newPerson(i);
+            if (i % 2 == 0) {
+                person.setHomeAddress(newAddress(i, Region.SOUTH));
+                person.setBusinessAddress(newAddress(i, Region.WEST));
+                person.addChild(newPerson(datasetSize + 2 * i));
+                person.addChild(newPerson(datasetSize + 2 * i + 1));
+            }
+            people.add(person);
+        }
+        repository.saveAll(people, 500);
+        connection.commit();
+        return people;
+    }
+
+    static Person newPerson(int i) {
+        Person person = new Person("First" + i, "Last" + (i % 1_000), ZonedDateTime.of(1950 + i % 50, 1 + i % 12, 1 + i % 28, 0, 0, 0, 0, ZoneId.of("+0")));
+        person.setSalary(new BigDecimal(30_000 + i % 70_000));
+        person.setEmail("person" + i + "@example.com");
+        return person;
+    }
+
+    private static Address newAddress(int i, Region region) {
+        return new Address(null, i + " Main Street", "Suite " + i, "City" + (i % 100), "TX", "7" + (i % 10_000), "United States", "County" + (i % 50), region);
+    }
+}
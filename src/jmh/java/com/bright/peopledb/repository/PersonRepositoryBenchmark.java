@@ -0,0 +1,172 @@
+package com.bright.peopledb.repository;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import com.bright.peopledb.model.CrudOperation;
+import com.bright.peopledb.model.Person;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Measures the hot paths of {@link PersonRepository} against an in-memory H2 database holding datasetSize people.
+ * Writes are rolled back after every iteration, so the dataset does not grow while it is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersonRepositoryBenchmark {
+
+    private static final int SAVE_BATCH_SIZE = 100;
+    private static final int DELETE_COUNT = 10;
+    private static final int FIND_BY_IDS_COUNT = 100;
+
+    @Param({"1000", "10000"})
+    private int datasetSize;
+
+    private Connection connection;
+    private PersonRepository repository;
+    private long[] idsWithAssociations;
+    private long[] idsWithoutAssociations;
+    private PreparedStatement findByIdStatement;
+    private ResultSet findByIdResultSet;
+    private PreparedStatement findByIdsStatement;
+    private ResultSet findByIdsResultSet;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = BenchmarkDatabase.open("person_repository_benchmark");
+        repository = new PersonRepository(connection);
+        List<Person> people = BenchmarkDatabase.seed(repository, connection, datasetSize);
+        idsWithAssociations = IntStream.range(0, people.size()).filter(i -> i % 2 == 0).mapToLong(i -> people.get(i).getId()).toArray();
+        idsWithoutAssociations = IntStream.range(0, people.size()).filter(i -> i % 2 == 1).mapToLong(i -> people.get(i).getId()).toArray();
+        findByIdStatement = connection.prepareStatement(PersonRepository.FIND_BY_ID_SQL, ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+        findByIdStatement.setLong(1, idsWithAssociations[0]);
+        findByIdResultSet = findByIdStatement.executeQuery();
+        findByIdsStatement = connection.prepareStatement(PersonRepository.FIND_BY_IDS_SQL, ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+        findByIdsStatement.setArray(1, connection.createArrayOf("BIGINT",
+                IntStream.range(0, FIND_BY_IDS_COUNT).mapToObj(i -> people.get(i).getId()).toArray(Long[]::new)));
+        findByIdsResultSet = findByIdsStatement.executeQuery();
+    }
+
+    @TearDown(Level.Iteration)
+    public void rollback() throws SQLException {
+        connection.rollback();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        findByIdResultSet.close();
+        findByIdStatement.close();
+        findByIdsResultSet.close();
+        findByIdsStatement.close();
+        repository.close();
+        connection.close();
+    }
+
+    /**
+     * Fresh people for every invocation of the delete benchmark.
+     */
+    @State(Scope.Thread)
+    public static class PeopleToDelete {
+        Person[] people;
+
+        @Setup(Level.Invocation)
+        public void saveFreshPeople(PersonRepositoryBenchmark benchmark) {
+            people = IntStream.range(0, DELETE_COUNT).mapToObj(BenchmarkDatabase::newPerson).toArray(Person[]::new);
+            benchmark.repository.saveAll(List.of(people), DELETE_COUNT);
+        }
+    }
+
+    @Benchmark
+    public Person save() {
+        return repository.save(BenchmarkDatabase.newPerson(datasetSize));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAVE_BATCH_SIZE)
+    public List<Person> saveAll() {
+        return repository.saveAll(IntStream.range(0, SAVE_BATCH_SIZE).mapToObj(BenchmarkDatabase::newPerson).toList(), SAVE_BATCH_SIZE);
+    }
+
+    @Benchmark
+    public Optional<Person> findByIdWithAssociations() {
+        return repository.findByID(randomId(idsWithAssociations));
+    }
+
+    @Benchmark
+    public Optional<Person> findByIdWithoutAssociations() {
+        return repository.findByID(randomId(idsWithoutAssociations));
+    }
+
+    @Benchmark
+    public List<Person> findAll() {
+        return repository.findAll();
+    }
+
+    @Benchmark
+    public long count() {
+        return repository.count();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DELETE_COUNT)
+    public void deleteMany(PeopleToDelete peopleToDelete) {
+        repository.delete(peopleToDelete.people);
+    }
+
+    /**
+     * Maps the rows of a person with two children through the mapping plan findByID uses, without running the query.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Person readFindByIdRows() throws SQLException {
+        findByIdResultSet.beforeFirst();
+        return new EntityReader<>(repository.rowMapper(PersonRepository.FIND_BY_ID_SQL, findByIdResultSet), findByIdResultSet).readNext();
+    }
+
+    /**
+     * Maps the rows of a findAllByIds chunk of people, half of them with two children, without running the query.
+     * The score is in people per second.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(FIND_BY_IDS_COUNT)
+    public void readFindAllByIdsRows(Blackhole blackhole) throws SQLException {
+        findByIdsResultSet.beforeFirst();
+        EntityReader<Person> reader = new EntityReader<>(repository.rowMapper(PersonRepository.FIND_BY_IDS_SQL, findByIdsResultSet), findByIdsResultSet);
+        Person person;
+        while ((person = reader.readNext()) != null) {
+            blackhole.consume(person);
+        }
+    }
+
+    @Benchmark
+    public void getSqlByAnnotation(Blackhole blackhole) {
+        blackhole.consume(repository.getSqlByAnnotation(CrudOperation.FIND_BY_ID, repository::getFindByIDSql));
+        blackhole.consume(repository.getSqlByAnnotation(CrudOperation.SAVE, repository::getSaveSQL));
+    }
+
+    private static long randomId(long[] ids) {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
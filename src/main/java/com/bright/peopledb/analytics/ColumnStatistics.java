@@ -0,0 +1,25 @@
+package com.bright.peopledb.analytics;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+/**
+ * Figures over the non-NULL values of a snapshot column. The minimum and maximum are 0 when there are no values.
+ * @param count the number of rows with a value
+ * @param sum the total of the values
+ * @param min the lowest value
+ * @param max the highest value
+ */
+public record ColumnStatistics(long count, long sum, long min, long max) {
+
+    /**
+     * @return The mean value, or NaN when there are no values
+     */
+    public double average() {
+        return count == 0 ? Double.NaN : (double) sum / count;
+    }
+}
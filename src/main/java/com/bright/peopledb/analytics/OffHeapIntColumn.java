@@ -0,0 +1,51 @@
+package com.bright.peopledb.analytics;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * An append-only column of ints in a direct buffer, outside the Java heap, doubling its capacity when full.
+ * The memory is released when the column becomes unreachable.
+ */
+final class OffHeapIntColumn {
+
+    private IntBuffer values;
+    private int size;
+
+    OffHeapIntColumn(int initialCapacity) {
+        values = allocate(Math.max(1, initialCapacity));
+    }
+
+    void append(int value) {
+        if (size == values.capacity()) {
+            IntBuffer grown = allocate(values.capacity() * 2);
+            grown.put(0, values, 0, size);
+            values = grown;
+        }
+        values.put(size++, value);
+    }
+
+    int get(int row) {
+        return values.get(row);
+    }
+
+    int size() {
+        return size;
+    }
+
+    long offHeapBytes() {
+        return (long) values.capacity() * Integer.BYTES;
+    }
+
+    private static IntBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(Math.multiplyExact(capacity, Integer.BYTES)).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+}
@@ -0,0 +1,51 @@
+package com.bright.peopledb.analytics;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * An append-only column of longs in a direct buffer, outside the Java heap, doubling its capacity when full.
+ * The memory is released when the column becomes unreachable.
+ */
+final class OffHeapLongColumn {
+
+    private LongBuffer values;
+    private int size;
+
+    OffHeapLongColumn(int initialCapacity) {
+        values = allocate(Math.max(1, initialCapacity));
+    }
+
+    void append(long value) {
+        if (size == values.capacity()) {
+            LongBuffer grown = allocate(values.capacity() * 2);
+            grown.put(0, values, 0, size);
+            values = grown;
+        }
+        values.put(size++, value);
+    }
+
+    long get(int row) {
+        return values.get(row);
+    }
+
+    int size() {
+        return size;
+    }
+
+    long offHeapBytes() {
+        return (long) values.capacity() * Long.BYTES;
+    }
+
+    private static LongBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(Math.multiplyExact(capacity, Long.BYTES)).order(ByteOrder.nativeOrder()).asLongBuffer();
+    }
+}
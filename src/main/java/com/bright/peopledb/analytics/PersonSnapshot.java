@@ -0,0 +1,253 @@
+package com.bright.peopledb.analytics;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import com.bright.peopledb.enums.SnapshotColumn;
+import com.bright.peopledb.exception.DataException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+
+/**
+ * A columnar copy of PERSON for analytical scans, held outside the Java heap: ID, DOB as epoch seconds and
+ * SALARY as whole cents in long columns, and the first and last names as codes of a shared dictionary.
+ * The rows are read with the conversions done by the database, so no Person, ZonedDateTime or BigDecimal
+ * is created per row.
+ * <p>
+ * Filters return the selected rows as a {@link BitSet}, which can be combined with {@link BitSet#and(BitSet)}
+ * and {@link BitSet#or(BitSet)} and handed to the aggregates. The loops run over primitive columns without
+ * allocating, so the JIT compiler can unroll them.
+ * <p>
+ * {@link #refresh()} appends the rows with an ID above the highest one read so far. Updates and deletes
+ * are not seen by a refresh; they need a new snapshot. Like the connection it reads from, a snapshot must
+ * only be used by one thread at a time.
+ */
+public final class PersonSnapshot {
+
+    /** Stored in the long columns for NULL */
+    public static final long NULL_VALUE = Long.MIN_VALUE;
+
+    static final String FIND_ROWS_AFTER_SQL = """
+    SELECT ID, FIRST_NAME, LAST_NAME,
+    DATEDIFF(SECOND, TIMESTAMP '1970-01-01 00:00:00', DOB) AS DOB_SECONDS,
+    CAST(SALARY * 100 AS BIGINT) AS SALARY_CENTS
+    FROM PERSON WHERE ID > ? ORDER BY ID""";
+
+    private static final int INITIAL_CAPACITY = 1_024;
+
+    private final Connection connection;
+    private final int fetchSize;
+    private final OffHeapLongColumn ids = new OffHeapLongColumn(INITIAL_CAPACITY);
+    private final OffHeapLongColumn datesOfBirth = new OffHeapLongColumn(INITIAL_CAPACITY);
+    private final OffHeapLongColumn salaryCents = new OffHeapLongColumn(INITIAL_CAPACITY);
+    private final OffHeapIntColumn firstNames = new OffHeapIntColumn(INITIAL_CAPACITY);
+    private final OffHeapIntColumn lastNames = new OffHeapIntColumn(INITIAL_CAPACITY);
+    private final StringDictionary names = new StringDictionary();
+    private long highWaterMark;
+
+    private PersonSnapshot(Connection connection, int fetchSize) {
+        this.connection = connection;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Reads all of PERSON with 500 rows per fetch.
+     */
+    public static PersonSnapshot load(Connection connection) {
+        return load(connection, 500);
+    }
+
+    /**
+     * @param fetchSize the number of rows the driver fetches per round trip
+     */
+    public static PersonSnapshot load(Connection connection, int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("Fetch size must be at least 1 but was " + fetchSize);
+        }
+        PersonSnapshot snapshot = new PersonSnapshot(connection, fetchSize);
+        snapshot.refresh();
+        return snapshot;
+    }
+
+    /**
+     * Appends the rows inserted since the snapshot was loaded or last refreshed.
+     * @return The number of rows appended
+     */
+    public int refresh() {
+        int rowsBefore = size();
+        try (PreparedStatement preparedStatement = connection.prepareStatement(FIND_ROWS_AFTER_SQL)) {
+            preparedStatement.setFetchSize(fetchSize);
+            preparedStatement.setLong(1, highWaterMark);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    // the whole row is read before any column is appended, so a failing read leaves the columns aligned
+                    long id = resultSet.getLong(1);
+                    String firstName = resultSet.getString(2);
+                    String lastName = resultSet.getString(3);
+                    long dateOfBirth = getLong(resultSet, 4);
+                    long salary = getLong(resultSet, 5);
+                    ids.append(id);
+                    firstNames.append(names.encode(firstName));
+                    lastNames.append(names.encode(lastName));
+                    datesOfBirth.append(dateOfBirth);
+                    salaryCents.append(salary);
+                    highWaterMark = id;
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataException("Unable to read the people after ID " + highWaterMark, e);
+        }
+        return size() - rowsBefore;
+    }
+
+    /**
+     * @return The number of rows
+     */
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * @return The highest ID read, or 0 when no rows have been read
+     */
+    public long getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * @return The number of bytes reserved outside the Java heap by the columns
+     */
+    public long offHeapBytes() {
+        return ids.offHeapBytes() + datesOfBirth.offHeapBytes() + salaryCents.offHeapBytes()
+                + firstNames.offHeapBytes() + lastNames.offHeapBytes();
+    }
+
+    /**
+     * @return The number of distinct first and last names
+     */
+    public int distinctNames() {
+        return names.size();
+    }
+
+    /**
+     * @return The value of the column in the row, or {@link #NULL_VALUE}
+     */
+    public long get(SnapshotColumn column, int row) {
+        return column(column).get(row);
+    }
+
+    public String getFirstName(int row) {
+        return names.decode(firstNames.get(row));
+    }
+
+    public String getLastName(int row) {
+        return names.decode(lastNames.get(row));
+    }
+
+    /**
+     * @return Every row
+     */
+    public BitSet all() {
+        BitSet selection = new BitSet(size());
+        selection.set(0, size());
+        return selection;
+    }
+
+    /**
+     * @return The rows whose value in the column is from low to high, both inclusive. NULLs never match.
+     */
+    public BitSet between(SnapshotColumn column, long low, long high) {
+        OffHeapLongColumn values = column(column);
+        long from = Math.max(low, NULL_VALUE + 1);
+        int size = values.size();
+        long[] words = new long[(size + Long.SIZE - 1) / Long.SIZE];
+        for (int row = 0; row < size; row++) {
+            long value = values.get(row);
+            long matches = value >= from & value <= high ? 1L : 0L;
+            words[row >>> 6] |= matches << row;
+        }
+        return BitSet.valueOf(words);
+    }
+
+    public BitSet firstNameEquals(String firstName) {
+        return codeEquals(firstNames, firstName);
+    }
+
+    public BitSet lastNameEquals(String lastName) {
+        return codeEquals(lastNames, lastName);
+    }
+
+    /**
+     * @param selection the rows to aggregate, e.g. from {@link #all()} or a filter
+     * @return The count, sum, minimum and maximum of the non-NULL values of the column in the selected rows
+     */
+    public ColumnStatistics statistics(SnapshotColumn column, BitSet selection) {
+        OffHeapLongColumn values = column(column);
+        long count = 0;
+        long sum = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int row = selection.nextSetBit(0); row >= 0 && row < values.size(); row = selection.nextSetBit(row + 1)) {
+            long value = values.get(row);
+            if (value != NULL_VALUE) {
+                count++;
+                sum += value;
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+        }
+        return count == 0 ? new ColumnStatistics(0, 0, 0, 0) : new ColumnStatistics(count, sum, min, max);
+    }
+
+    /**
+     * @return The IDs of the selected rows in ID order, e.g. to load the people through the repository
+     */
+    public long[] ids(BitSet selection) {
+        return selection.stream().filter(row -> row < size()).mapToLong(ids::get).toArray();
+    }
+
+    /**
+     * Visits the selected rows in ID order.
+     */
+    public void scan(BitSet selection, IntConsumer rowConsumer) {
+        for (int row = selection.nextSetBit(0); row >= 0 && row < size(); row = selection.nextSetBit(row + 1)) {
+            rowConsumer.accept(row);
+        }
+    }
+
+    private BitSet codeEquals(OffHeapIntColumn codes, String name) {
+        BitSet selection = new BitSet(size());
+        int code = names.codeOf(name);
+        if (code == StringDictionary.NULL_CODE) {
+            return selection;
+        }
+        for (int row = 0; row < codes.size(); row++) {
+            if (codes.get(row) == code) {
+                selection.set(row);
+            }
+        }
+        return selection;
+    }
+
+    private OffHeapLongColumn column(SnapshotColumn column) {
+        return switch (column) {
+            case ID -> ids;
+            case DATE_OF_BIRTH -> datesOfBirth;
+            case SALARY_CENTS -> salaryCents;
+        };
+    }
+
+    private static long getLong(ResultSet resultSet, int columnIndex) throws SQLException {
+        long value = resultSet.getLong(columnIndex);
+        return resultSet.wasNull() ? NULL_VALUE : value;
+    }
+}
@@ -0,0 +1,51 @@
+package com.bright.peopledb.analytics;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Encodes strings as dense codes in order of first appearance, so a column of repeated names
+ * is stored as ints and compared by code. NULL is encoded as {@link #NULL_CODE}.
+ */
+final class StringDictionary {
+
+    static final int NULL_CODE = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    int encode(String value) {
+        if (Objects.isNull(value)) {
+            return NULL_CODE;
+        }
+        return codes.computeIfAbsent(value, newValue -> {
+            values.add(newValue);
+            return values.size() - 1;
+        });
+    }
+
+    /**
+     * @return The code of the value, or {@link #NULL_CODE} if it has never been encoded
+     */
+    int codeOf(String value) {
+        return Objects.isNull(value) ? NULL_CODE : codes.getOrDefault(value, NULL_CODE);
+    }
+
+    String decode(int code) {
+        return code == NULL_CODE ? null : values.get(code);
+    }
+
+    int size() {
+        return values.size();
+    }
+}
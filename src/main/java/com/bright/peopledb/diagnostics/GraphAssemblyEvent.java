@@ -0,0 +1,33 @@
+package com.bright.peopledb.diagnostics;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Saving or loading a graph of people, e.g. a family saved generation by generation,
+ * or the children and addresses of a page of people loaded lazily.
+ */
+@Name("com.bright.peopledb.GraphAssembly")
+@Label("Graph Assembly")
+@Category({"PeopleDB", "Repository"})
+@Description("Saving or loading the associations of a graph of people")
+public class GraphAssemblyEvent extends jdk.jfr.Event {
+
+    @Label("Kind")
+    public String kind;
+
+    @Label("People")
+    public long people;
+
+    @Label("Generations")
+    public int generations;
+}
@@ -0,0 +1,35 @@
+package com.bright.peopledb.diagnostics;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Reading the entities of a query from its result set, after the statement was executed.
+ */
+@Name("com.bright.peopledb.ResultExtraction")
+@Label("Result Extraction")
+@Category({"PeopleDB", "Repository"})
+@Description("Mapping of the rows of a result set to entities")
+public class ResultExtractionEvent extends jdk.jfr.Event {
+
+    @Label("Repository")
+    public String repository;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("SQL")
+    public String sql;
+
+    @Label("Entities")
+    public long entities;
+}
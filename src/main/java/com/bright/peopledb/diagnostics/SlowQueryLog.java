@@ -0,0 +1,171 @@
+package com.bright.peopledb.diagnostics;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import com.bright.peopledb.model.CrudOperation;
+
+import jdk.jfr.EventType;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Logs the repository operations that take longer than a threshold, with their SQL, bind values and row counts,
+ * to the java.util.logging logger com.bright.peopledb.SlowQueryLog at WARNING level.
+ * <p>
+ * The log is disabled unless the system property peopledb.slowQueryLog.thresholdMillis is set, and can be
+ * enabled, disabled and re-tuned at runtime through {@link #setThresholdMillis(long)} or JMX. While it is
+ * disabled, and no flight recording has {@link StatementExecutionEvent}s enabled, statements are not
+ * {@link #trace(PreparedStatement, String) traced} at all, so they run without any overhead. Bind values of the {@link #getMaskedColumns() masked columns},
+ * by default EMAIL and SALARY, are logged as ****.
+ */
+public final class SlowQueryLog implements SlowQueryLogMXBean {
+
+    public static final String THRESHOLD_PROPERTY = "peopledb.slowQueryLog.thresholdMillis";
+
+    private static final Logger LOGGER = Logger.getLogger("com.bright.peopledb.SlowQueryLog");
+    private static final SlowQueryLog INSTANCE = new SlowQueryLog(Long.getLong(THRESHOLD_PROPERTY, -1));
+    private static final EventType STATEMENT_EXECUTION = EventType.getEventType(StatementExecutionEvent.class);
+
+    static {
+        try {
+            ObjectName name = new ObjectName("com.bright.peopledb:type=SlowQueryLog");
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, name);
+            }
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private final ThreadLocal<List<String>> currentStatements = new ThreadLocal<>();
+    private final LongAdder slowQueryCount = new LongAdder();
+    private volatile long thresholdNanos;
+    private volatile Set<String> maskedColumns = Set.of("EMAIL", "SALARY");
+
+    private SlowQueryLog(long thresholdMillis) {
+        setThresholdMillis(thresholdMillis);
+    }
+
+    public static SlowQueryLog getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return thresholdNanos >= 0;
+    }
+
+    @Override
+    public long getThresholdMillis() {
+        long threshold = thresholdNanos;
+        return threshold < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(threshold);
+    }
+
+    @Override
+    public void setThresholdMillis(long thresholdMillis) {
+        thresholdNanos = thresholdMillis < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    @Override
+    public String[] getMaskedColumns() {
+        return maskedColumns.toArray(String[]::new);
+    }
+
+    @Override
+    public void setMaskedColumns(String[] maskedColumns) {
+        this.maskedColumns = Set.of(maskedColumns).stream()
+                .map(column -> column.toUpperCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public long getSlowQueryCount() {
+        return slowQueryCount.sum();
+    }
+
+    /**
+     * @return Whether statements have to be {@link #trace(PreparedStatement, String) traced}: while this log is
+     * enabled or a flight recording has {@link StatementExecutionEvent}s enabled
+     */
+    public static boolean isTracing() {
+        return INSTANCE.isEnabled() || STATEMENT_EXECUTION.isEnabled();
+    }
+
+    /**
+     * Wraps the statement in a dynamic proxy, which costs a reflective call per method of the statement,
+     * so callers only use the traced statement while {@link #isTracing()} is true.
+     * @return The statement, wrapped to capture its bind values for this log and to emit {@link StatementExecutionEvent}s
+     */
+    public static PreparedStatement trace(PreparedStatement statement, String sql) {
+        return (PreparedStatement) Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, new StatementTracer(statement, sql));
+    }
+
+    /**
+     * Starts collecting the statements the current thread executes, unless the log is disabled
+     * or an enclosing operation is already collecting them.
+     * @return Whether the caller has to {@link #end(boolean, String, CrudOperation, long, long, long, boolean)} the operation
+     */
+    public boolean begin() {
+        if (!isEnabled() || currentStatements.get() != null) {
+            return false;
+        }
+        currentStatements.set(new ArrayList<>(2));
+        return true;
+    }
+
+    /**
+     * Logs the operation if it took at least the threshold.
+     * @param begun the result of {@link #begin()}
+     * @param startTime the {@link System#nanoTime()} the operation started at
+     */
+    public void end(boolean begun, String repository, CrudOperation operation, long startTime, long rowsRead, long rowsWritten, boolean failed) {
+        if (!begun) {
+            return;
+        }
+        List<String> statements = currentStatements.get();
+        currentStatements.remove();
+        long elapsed = System.nanoTime() - startTime;
+        long threshold = thresholdNanos;
+        if (threshold < 0 || elapsed < threshold) {
+            return;
+        }
+        slowQueryCount.increment();
+        if (LOGGER.isLoggable(Level.WARNING)) {
+            LOGGER.warning("Slow %s%s on %s took %.1f ms, rows read %d, rows written %d:%n  %s".formatted(
+                    operation, failed ? " (failed)" : "", repository, elapsed / 1e6, rowsRead, rowsWritten,
+                    String.join(System.lineSeparator() + "  ", statements)));
+        }
+    }
+
+    /**
+     * Called by the statement tracers on the thread executing the statement.
+     */
+    void recordStatement(String statement) {
+        List<String> statements = currentStatements.get();
+        if (statements != null) {
+            statements.add(statement);
+        }
+    }
+
+    boolean isMasked(String column) {
+        return column != null && maskedColumns.contains(column);
+    }
+}
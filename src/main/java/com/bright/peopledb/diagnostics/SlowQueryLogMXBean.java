@@ -0,0 +1,34 @@
+package com.bright.peopledb.diagnostics;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+/**
+ * The JMX view of the {@link SlowQueryLog}, registered as com.bright.peopledb:type=SlowQueryLog,
+ * so the log can be switched on, off or re-tuned on a running application.
+ */
+public interface SlowQueryLogMXBean {
+
+    /**
+     * @return The threshold in milliseconds, or a negative number while the log is disabled
+     */
+    long getThresholdMillis();
+
+    /**
+     * @param thresholdMillis the duration from which operations are logged, or a negative number to disable the log
+     */
+    void setThresholdMillis(long thresholdMillis);
+
+    /**
+     * @return The columns whose bind values are logged as ****
+     */
+    String[] getMaskedColumns();
+
+    void setMaskedColumns(String[] maskedColumns);
+
+    long getSlowQueryCount();
+}
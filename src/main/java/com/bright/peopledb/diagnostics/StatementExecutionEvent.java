@@ -0,0 +1,37 @@
+package com.bright.peopledb.diagnostics;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The execution of a prepared statement, from the call to executeQuery, executeUpdate or executeBatch until it returns.
+ */
+@Name("com.bright.peopledb.StatementExecution")
+@Label("Statement Execution")
+@Category({"PeopleDB", "JDBC"})
+@Description("Execution of a prepared statement")
+public class StatementExecutionEvent extends jdk.jfr.Event {
+
+    @Label("SQL")
+    public String sql;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Batch Size")
+    @Description("The number of parameter sets executed, 1 unless the statement was batched")
+    public int batchSize;
+
+    @Label("Update Count")
+    @Description("The number of rows written, -1 for queries")
+    public long updateCount;
+}
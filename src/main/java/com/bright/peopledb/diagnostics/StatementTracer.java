@@ -0,0 +1,186 @@
+package com.bright.peopledb.diagnostics;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Wraps a prepared statement to emit a {@link StatementExecutionEvent} for every execution and, while the
+ * {@link SlowQueryLog} is enabled, to capture the bind values so slow operations can be logged with them.
+ * Like the statement it wraps, a tracer must only be used by one thread at a time.
+ */
+final class StatementTracer implements InvocationHandler {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+    private static final Pattern INSERT_COLUMNS = Pattern.compile("INTO\\s+\\w+\\s*\\(([^)]*)\\)\\s*(?:KEY\\s*\\([^)]*\\)\\s*)?VALUES", Pattern.CASE_INSENSITIVE);
+    private static final Pattern COMPARED_COLUMN = Pattern.compile("(?:\\w+\\.)?(\\w+)\\s*(?:=|<>|!=|<=|>=|<|>|\\sLIKE|\\sIN\\s*\\(|=\\s*ANY\\s*\\()\\s*$", Pattern.CASE_INSENSITIVE);
+    private static final Map<String, List<String>> PARAMETER_COLUMNS = new ConcurrentHashMap<>();
+    private static final int MAX_VALUE_LENGTH = 100;
+    private static final int MAX_ARRAY_ELEMENTS = 10;
+
+    private final PreparedStatement statement;
+    private final String sql;
+    private final SlowQueryLog slowQueryLog = SlowQueryLog.getInstance();
+    private Object[] parameters = new Object[8];
+    private int parameterCount;
+    private int batchSize;
+
+    StatementTracer(PreparedStatement statement, String sql) {
+        this.statement = statement;
+        this.sql = sql;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        if (method.getDeclaringClass() == Object.class) {
+            return switch (name) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> "Traced " + statement;
+            };
+        }
+        if (args != null && args.length >= 2 && args[0] instanceof Integer index && name.startsWith("set")) {
+            if (slowQueryLog.isEnabled()) {
+                recordParameter(index, name.equals("setNull") ? null : args[1]);
+            }
+        } else if (args == null && name.equals("addBatch")) {
+            batchSize++;
+        } else if (args == null && name.equals("clearParameters")) {
+            parameterCount = 0;
+        } else if (args == null && EXECUTE_METHODS.contains(name)) {
+            return execute(method, name);
+        }
+        return invokeStatement(method, args);
+    }
+
+    private Object execute(Method method, String name) throws Throwable {
+        int executedBatchSize = name.endsWith("Batch") ? batchSize : 1;
+        StatementExecutionEvent event = new StatementExecutionEvent();
+        event.begin();
+        Object result = null;
+        try {
+            result = invokeStatement(method, null);
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.sql = sql;
+                event.method = name;
+                event.batchSize = executedBatchSize;
+                event.updateCount = updateCount(result);
+                event.commit();
+            }
+            if (slowQueryLog.isEnabled()) {
+                slowQueryLog.recordStatement(describe(executedBatchSize));
+            }
+            if (name.endsWith("Batch")) {
+                batchSize = 0;
+            }
+        }
+    }
+
+    private Object invokeStatement(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(statement, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void recordParameter(int index, Object value) {
+        if (index > parameters.length) {
+            parameters = Arrays.copyOf(parameters, Math.max(index, parameters.length * 2));
+        }
+        parameters[index - 1] = value;
+        parameterCount = Math.max(parameterCount, index);
+    }
+
+    private String describe(int executedBatchSize) {
+        StringBuilder description = new StringBuilder(sql.replaceAll("\\s+", " ").strip());
+        if (parameterCount > 0) {
+            List<String> columns = PARAMETER_COLUMNS.computeIfAbsent(sql, StatementTracer::parameterColumns);
+            StringJoiner values = new StringJoiner(", ", " [", "]");
+            for (int i = 0; i < parameterCount; i++) {
+                String column = i < columns.size() ? columns.get(i) : null;
+                values.add((i + 1) + "=" + (slowQueryLog.isMasked(column) ? "****" : format(parameters[i])));
+            }
+            description.append(values);
+        }
+        if (executedBatchSize > 1) {
+            description.append(" x").append(executedBatchSize).append(" (parameters of the last row)");
+        }
+        return description.toString();
+    }
+
+    /**
+     * @return The column each parameter of the SQL binds to, or null where it cannot be told from the SQL:
+     * the column list of an INSERT or MERGE, else the column compared with the parameter
+     */
+    static List<String> parameterColumns(String sql) {
+        List<String> columns = new ArrayList<>();
+        Matcher insert = INSERT_COLUMNS.matcher(sql);
+        if (insert.find()) {
+            Arrays.stream(insert.group(1).split(",")).map(column -> column.strip().toUpperCase(Locale.ROOT)).forEach(columns::add);
+            return columns;
+        }
+        for (int i = sql.indexOf('?'); i >= 0; i = sql.indexOf('?', i + 1)) {
+            Matcher compared = COMPARED_COLUMN.matcher(sql.substring(0, i));
+            columns.add(compared.find() ? compared.group(1).toUpperCase(Locale.ROOT) : null);
+        }
+        return columns;
+    }
+
+    private static String format(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof Array array) {
+            try {
+                Object[] elements = (Object[]) array.getArray();
+                String shown = Arrays.toString(Arrays.copyOf(elements, Math.min(elements.length, MAX_ARRAY_ELEMENTS)));
+                return elements.length > MAX_ARRAY_ELEMENTS ? shown + " (" + elements.length + " elements)" : shown;
+            } catch (SQLException | ClassCastException e) {
+                return "ARRAY";
+            }
+        }
+        String text = value.toString();
+        if (text.length() > MAX_VALUE_LENGTH) {
+            text = text.substring(0, MAX_VALUE_LENGTH) + "...";
+        }
+        return value instanceof String ? "'" + text + "'" : text;
+    }
+
+    private static long updateCount(Object result) {
+        if (result instanceof Integer count) {
+            return count;
+        }
+        if (result instanceof Long count) {
+            return count;
+        }
+        if (result instanceof int[] counts) {
+            return Arrays.stream(counts).filter(count -> count > 0).asLongStream().sum();
+        }
+        return -1;
+    }
+}
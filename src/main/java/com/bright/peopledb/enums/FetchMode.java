@@ -0,0 +1,19 @@
+package com.bright.peopledb.enums;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+/**
+ * How the children and addresses of the people found by a query are loaded.
+ */
+public enum FetchMode {
+
+    /** Loaded together with the people, before the query returns. */
+    EAGER,
+    /** Loaded on first access, for all people found by the same query at once. */
+    LAZY
+}
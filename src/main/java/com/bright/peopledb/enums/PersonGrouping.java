@@ -0,0 +1,21 @@
+package com.bright.peopledb.enums;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+/**
+ * What people are grouped by when they are counted in the database.
+ */
+public enum PersonGrouping {
+
+    /** The region of the home address, e.g. "WEST". */
+    REGION,
+    /** The state of the home address. */
+    STATE,
+    /** The first year of the decade the person was born in, e.g. "1980". */
+    BIRTH_DECADE
+}
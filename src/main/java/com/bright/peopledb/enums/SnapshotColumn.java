@@ -0,0 +1,19 @@
+package com.bright.peopledb.enums;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+/**
+ * The numeric columns of a {@link com.bright.peopledb.analytics.PersonSnapshot}.
+ */
+public enum SnapshotColumn {
+    ID,
+    /** DOB as seconds since the epoch, in UTC */
+    DATE_OF_BIRTH,
+    /** SALARY in whole cents */
+    SALARY_CENTS
+}
@@ -0,0 +1,91 @@
+package com.bright.peopledb.load;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import com.bright.peopledb.exception.DataException;
+import com.bright.peopledb.model.Person;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Parses the rows of the Hr5m.csv HR export into {@link Person} objects.
+ * The formatters are built once and the line is scanned for the needed
+ * columns only, instead of splitting every column of every row.
+ */
+public final class HrCsvParser {
+
+    private static final int FIRST_NAME = 2;
+    private static final int LAST_NAME = 4;
+    private static final int EMAIL = 6;
+    private static final int DATE_OF_BIRTH = 10;
+    private static final int TIME_OF_BIRTH = 11;
+    private static final int SALARY = 25;
+    private static final int LAST_COLUMN = SALARY;
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("M/d/yyyy");
+    private static final DateTimeFormatter TIME_FORMATTER = new DateTimeFormatterBuilder()
+            .parseCaseInsensitive()
+            .appendPattern("hh:mm:ss a")
+            .toFormatter(Locale.US);
+    private static final ZoneId UTC = ZoneId.of("+0");
+
+    /**
+     * @param line a data row of the CSV file, without the line terminator
+     * @return A new Person from the row
+     * @throws DataException if the row does not have the expected columns, or one of them cannot be parsed
+     */
+    public Person parse(String line) {
+        String[] columns = new String[LAST_COLUMN + 1];
+        int column = 0;
+        int start = 0;
+        while (column <= LAST_COLUMN) {
+            int end = line.indexOf(',', start);
+            if (end < 0) {
+                end = line.length();
+            }
+            if (isNeeded(column)) {
+                columns[column] = line.substring(start, end);
+            }
+            column++;
+            if (end == line.length()) {
+                break;
+            }
+            start = end + 1;
+        }
+        if (column <= LAST_COLUMN) {
+            throw new DataException("Expected at least %d columns but found %d in row: %s".formatted(LAST_COLUMN + 1, column, line));
+        }
+        try {
+            LocalDate dateOfBirth = LocalDate.parse(columns[DATE_OF_BIRTH], DATE_FORMATTER);
+            LocalTime timeOfBirth = LocalTime.parse(columns[TIME_OF_BIRTH], TIME_FORMATTER);
+            ZonedDateTime zonedDateTime = ZonedDateTime.of(LocalDateTime.of(dateOfBirth, timeOfBirth), UTC);
+            Person person = new Person(columns[FIRST_NAME], columns[LAST_NAME], zonedDateTime);
+            person.setSalary(new BigDecimal(columns[SALARY]));
+            person.setEmail(columns[EMAIL]);
+            return person;
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new DataException("Unable to parse row: " + line, e);
+        }
+    }
+
+    private static boolean isNeeded(int column) {
+        return switch (column) {
+            case FIRST_NAME, LAST_NAME, EMAIL, DATE_OF_BIRTH, TIME_OF_BIRTH, SALARY -> true;
+            default -> false;
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package com.bright.peopledb.load;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import com.bright.peopledb.exception.DataException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Records how many data rows of an import have been committed, so that an
+ * interrupted import can be resumed without loading the same rows twice.
+ */
+public final class LoadCheckpoint {
+
+    private final Path file;
+
+    public LoadCheckpoint(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * @return The number of data rows already committed, or 0 if there is no checkpoint yet
+     */
+    public long read() {
+        try {
+            if (Files.notExists(file)) {
+                return 0;
+            }
+            return Long.parseLong(Files.readString(file, StandardCharsets.UTF_8).trim());
+        } catch (IOException | NumberFormatException e) {
+            throw new DataException("Unable to read load checkpoint " + file);
+        }
+    }
+
+    /**
+     * Writes the checkpoint through a temporary file, so that a crash never leaves a half written checkpoint.
+     * @param rowsCommitted the number of data rows committed so far
+     */
+    public void write(long rowsCommitted) {
+        try {
+            Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(temporaryFile, Long.toString(rowsCommitted), StandardCharsets.UTF_8);
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new DataException("Unable to write load checkpoint " + file);
+        }
+    }
+
+    public void delete() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new DataException("Unable to delete load checkpoint " + file);
+        }
+    }
+}
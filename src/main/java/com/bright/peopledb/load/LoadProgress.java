@@ -0,0 +1,30 @@
+package com.bright.peopledb.load;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @param rowsCommitted rows committed to the database, including the rows of a resumed checkpoint
+ * @param rowsThisRun rows committed by the current run only
+ * @param elapsedNanos time spent by the current run
+ */
+public record LoadProgress(long rowsCommitted, long rowsThisRun, long elapsedNanos) {
+
+    /**
+     * @return The rows committed per second by the current run
+     */
+    public double rowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rowsThisRun * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "%,d rows committed (%,.0f rows/sec)".formatted(rowsCommitted, rowsPerSecond());
+    }
+}
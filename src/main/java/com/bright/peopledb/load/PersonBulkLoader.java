@@ -0,0 +1,267 @@
+package com.bright.peopledb.load;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import com.bright.peopledb.exception.DataException;
+import com.bright.peopledb.model.Person;
+import com.bright.peopledb.repository.PersonRepository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streams the Hr5m.csv HR export (plain or gzip compressed) into the PERSON table.
+ * <p>
+ * A reader thread cuts the file into chunks of lines, the chunks are parsed in parallel
+ * and handed over, in file order, through a bounded queue to the calling thread, which
+ * saves them with {@link PersonRepository#saveAll(Iterable, int)} and commits every
+ * {@code commitInterval} rows. After each commit the number of committed rows is written
+ * to the optional {@link LoadCheckpoint}, so a failed import resumes where it stopped.
+ */
+public class PersonBulkLoader {
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    private final Connection connection;
+    private final PersonRepository repository;
+    private final HrCsvParser parser = new HrCsvParser();
+
+    private int chunkSize = 1_000;
+    private int batchSize = 500;
+    private int commitInterval = 10_000;
+    private int parserThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    private int queueCapacity = 16;
+    private LoadCheckpoint checkpoint;
+    private Consumer<LoadProgress> progressListener = progress -> {};
+
+    public PersonBulkLoader(Connection connection) {
+        this.connection = connection;
+        this.repository = new PersonRepository(connection);
+    }
+
+    /**
+     * @param chunkSize the number of lines parsed together by one parser task
+     */
+    public PersonBulkLoader withChunkSize(int chunkSize) {
+        this.chunkSize = requirePositive(chunkSize, "Chunk size");
+        return this;
+    }
+
+    /**
+     * @param batchSize the number of rows sent to the database per JDBC batch
+     */
+    public PersonBulkLoader withBatchSize(int batchSize) {
+        this.batchSize = requirePositive(batchSize, "Batch size");
+        return this;
+    }
+
+    /**
+     * @param commitInterval the number of rows after which the transaction is committed.
+     *                       Commits happen on chunk boundaries, so the interval is rounded up to whole chunks.
+     */
+    public PersonBulkLoader withCommitInterval(int commitInterval) {
+        this.commitInterval = requirePositive(commitInterval, "Commit interval");
+        return this;
+    }
+
+    public PersonBulkLoader withParserThreads(int parserThreads) {
+        this.parserThreads = requirePositive(parserThreads, "Parser threads");
+        return this;
+    }
+
+    /**
+     * @param queueCapacity the number of parsed chunks that may wait for the writer before the reader blocks
+     */
+    public PersonBulkLoader withQueueCapacity(int queueCapacity) {
+        this.queueCapacity = requirePositive(queueCapacity, "Queue capacity");
+        return this;
+    }
+
+    public PersonBulkLoader withCheckpoint(LoadCheckpoint checkpoint) {
+        this.checkpoint = checkpoint;
+        return this;
+    }
+
+    /**
+     * @param progressListener called on the loading thread after every commit
+     */
+    public PersonBulkLoader withProgressListener(Consumer<LoadProgress> progressListener) {
+        this.progressListener = Objects.requireNonNull(progressListener);
+        return this;
+    }
+
+    /**
+     * Loads the CSV file, skipping its header row and any rows recorded in the checkpoint.
+     * The checkpoint is deleted once the whole file has been committed.
+     * @param csvFile the CSV file, optionally gzip compressed
+     * @return The final progress of the load
+     */
+    public LoadProgress load(Path csvFile) {
+        long rowsToSkip = Objects.isNull(checkpoint) ? 0 : checkpoint.read();
+        long startTime = System.nanoTime();
+        long rowsCommitted = rowsToSkip;
+        long rowsSinceCommit = 0;
+        BlockingQueue<Future<List<Person>>> parsedChunks = new ArrayBlockingQueue<>(queueCapacity);
+        ExecutorService parserPool = Executors.newFixedThreadPool(parserThreads);
+        Thread reader = new Thread(() -> readChunks(csvFile, rowsToSkip, parserPool, parsedChunks), "person-bulk-loader-reader");
+        boolean autoCommit = true;
+        try {
+            autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            reader.start();
+            List<Person> chunk;
+            while (!(chunk = parsedChunks.take().get()).isEmpty()) {
+                repository.saveAll(chunk, batchSize);
+                rowsSinceCommit += chunk.size();
+                if (rowsSinceCommit >= commitInterval) {
+                    rowsCommitted += commit(rowsSinceCommit, rowsCommitted);
+                    rowsSinceCommit = 0;
+                    progressListener.accept(new LoadProgress(rowsCommitted, rowsCommitted - rowsToSkip, System.nanoTime() - startTime));
+                }
+            }
+            rowsCommitted += commit(rowsSinceCommit, rowsCommitted);
+            if (Objects.nonNull(checkpoint)) {
+                checkpoint.delete();
+            }
+            LoadProgress progress = new LoadProgress(rowsCommitted, rowsCommitted - rowsToSkip, System.nanoTime() - startTime);
+            progressListener.accept(progress);
+            return progress;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rollback();
+            throw new DataException("Load of " + csvFile + " was interrupted");
+        } catch (ExecutionException e) {
+            rollback();
+            throw e.getCause() instanceof DataException dataException ? dataException
+                    : new DataException("Unable to load " + csvFile + ": " + e.getCause());
+        } catch (SQLException | RuntimeException e) {
+            rollback();
+            throw e instanceof DataException dataException ? dataException
+                    : new DataException("Unable to load " + csvFile + ": " + e);
+        } finally {
+            reader.interrupt();
+            parserPool.shutdownNow();
+            restoreAutoCommit(autoCommit);
+        }
+    }
+
+    private long commit(long rowsSinceCommit, long rowsCommitted) throws SQLException {
+        connection.commit();
+        if (Objects.nonNull(checkpoint)) {
+            checkpoint.write(rowsCommitted + rowsSinceCommit);
+        }
+        return rowsSinceCommit;
+    }
+
+    private void readChunks(Path csvFile, long rowsToSkip, ExecutorService parserPool, BlockingQueue<Future<List<Person>>> parsedChunks) {
+        try (BufferedReader lines = openReader(csvFile)) {
+            lines.readLine(); // header row
+            long lineNumber = 1;
+            for (long skipped = 0; skipped < rowsToSkip && lines.readLine() != null; skipped++) {
+                lineNumber++; // already committed by a previous run
+            }
+            List<String> chunk = new ArrayList<>(chunkSize);
+            String line;
+            while ((line = lines.readLine()) != null) {
+                chunk.add(line);
+                if (chunk.size() == chunkSize) {
+                    parsedChunks.put(parse(chunk, lineNumber + 1, parserPool));
+                    lineNumber += chunk.size();
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                parsedChunks.put(parse(chunk, lineNumber + 1, parserPool));
+            }
+            parsedChunks.put(CompletableFuture.completedFuture(List.of()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            try {
+                parsedChunks.put(CompletableFuture.failedFuture(new DataException("Unable to read " + csvFile + ": " + e)));
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * @param firstLineNumber the line number of the first of the lines in the file, counting the header row as line 1
+     */
+    private Future<List<Person>> parse(List<String> lines, long firstLineNumber, ExecutorService parserPool) {
+        return parserPool.submit(() -> {
+            List<Person> people = new ArrayList<>(lines.size());
+            for (int i = 0; i < lines.size(); i++) {
+                try {
+                    people.add(parser.parse(lines.get(i)));
+                } catch (DataException e) {
+                    throw new DataException("Unable to parse line " + (firstLineNumber + i) + ": " + e.getMessage(), e);
+                }
+            }
+            return people;
+        });
+    }
+
+    private static BufferedReader openReader(Path csvFile) throws IOException {
+        InputStream inputStream = new BufferedInputStream(Channels.newInputStream(FileChannel.open(csvFile, StandardOpenOption.READ)), READ_BUFFER_SIZE);
+        inputStream.mark(2);
+        int magic = inputStream.read() | (inputStream.read() << 8);
+        inputStream.reset();
+        if (magic == GZIP_MAGIC) {
+            inputStream = new GZIPInputStream(inputStream, READ_BUFFER_SIZE);
+        }
+        return new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8), READ_BUFFER_SIZE);
+    }
+
+    private void rollback() {
+        try {
+            connection.rollback();
+            repository.clearAddressCache();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void restoreAutoCommit(boolean autoCommit) {
+        try {
+            connection.setAutoCommit(autoCommit);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static int requirePositive(int value, String name) {
+        if (value < 1) {
+            throw new IllegalArgumentException(name + " must be at least 1 but was " + value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,143 @@
+package com.bright.peopledb.metrics;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of latencies in nanoseconds, with log-linear buckets in the style of HdrHistogram:
+ * every power of two is split into 32 buckets, so any recorded value is reported within about 3% of its
+ * true value, from nanoseconds to hours, in 15 KB of counters per stripe.
+ * <p>
+ * The counters are striped like a {@link java.util.concurrent.atomic.LongAdder}: a histogram starts with one
+ * array of counters, and each time two threads collide on a counter the number of arrays is doubled, up to
+ * the number of processors. Each thread records into the array picked by its ID, and reads sum the arrays.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = Long.SIZE - SUB_BUCKET_BITS + 1;
+    private static final int MAX_STRIPES = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+    private volatile AtomicLongArray[] stripes = {new AtomicLongArray(BUCKETS * SUB_BUCKETS)};
+
+    public void record(long nanos) {
+        int index = indexOf(nanos);
+        AtomicLongArray[] current = stripes;
+        AtomicLongArray counts = current[stripeOf(Thread.currentThread().getId(), current.length)];
+        long count = counts.get(index);
+        if (!counts.compareAndSet(index, count, count + 1)) {
+            counts.incrementAndGet(index);
+            grow(current);
+        }
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 100, e.g. 99.9
+     * @return The latency in nanoseconds that the given percentage of the recorded latencies does not exceed,
+     * or 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100 but was " + percentile);
+        }
+        long[] snapshot = snapshot();
+        long total = Arrays.stream(snapshot).sum();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long cumulative = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            cumulative += snapshot[i];
+            if (cumulative >= rank) {
+                return highestValueAt(i);
+            }
+        }
+        return highestValueAt(snapshot.length - 1);
+    }
+
+    public long getCount() {
+        return Arrays.stream(snapshot()).sum();
+    }
+
+    public void reset() {
+        for (AtomicLongArray counts : stripes) {
+            for (int i = 0; i < counts.length(); i++) {
+                counts.set(i, 0);
+            }
+        }
+    }
+
+    /**
+     * @return The counts of each bucket, summed over the stripes
+     */
+    private long[] snapshot() {
+        long[] snapshot = new long[BUCKETS * SUB_BUCKETS];
+        for (AtomicLongArray counts : stripes) {
+            for (int i = 0; i < snapshot.length; i++) {
+                snapshot[i] += counts.get(i);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Doubles the stripes, unless another thread already did or there are as many stripes as processors.
+     */
+    private void grow(AtomicLongArray[] current) {
+        if (current.length >= MAX_STRIPES) {
+            return;
+        }
+        synchronized (this) {
+            if (stripes == current) {
+                AtomicLongArray[] grown = Arrays.copyOf(current, current.length * 2);
+                for (int i = current.length; i < grown.length; i++) {
+                    grown[i] = new AtomicLongArray(BUCKETS * SUB_BUCKETS);
+                }
+                stripes = grown;
+            }
+        }
+    }
+
+    /**
+     * Spreads consecutive thread IDs over the stripes with a Fibonacci hash.
+     */
+    static int stripeOf(long threadId, int stripes) {
+        return (int) ((threadId * 0x9E3779B97F4A7C15L) >>> 32) & (stripes - 1);
+    }
+
+    /**
+     * Values below 32 have a bucket each. Larger values are bucketed by their highest set bit,
+     * which selects the power of two, and the five bits below it, which select the sub-bucket.
+     */
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) Math.max(value, 0);
+        }
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return The highest value recorded in the bucket at the index
+     */
+    static long highestValueAt(int index) {
+        int bucket = index / SUB_BUCKETS;
+        int subBucket = index % SUB_BUCKETS;
+        if (bucket == 0) {
+            return subBucket;
+        }
+        int shift = bucket - 1;
+        long lowest = (long) (SUB_BUCKETS + subBucket) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
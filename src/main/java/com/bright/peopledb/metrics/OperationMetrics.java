@@ -0,0 +1,79 @@
+package com.bright.peopledb.metrics;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import com.bright.peopledb.model.CrudOperation;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The counters and latency histogram of one operation of one repository.
+ * Recording is lock-free: the counters are striped {@link LongAdder}s, so threads do not contend on them.
+ */
+public final class OperationMetrics {
+
+    private final CrudOperation operation;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rowsRead = new LongAdder();
+    private final LongAdder rowsWritten = new LongAdder();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    OperationMetrics(CrudOperation operation) {
+        this.operation = operation;
+    }
+
+    /**
+     * @param startTime the {@link System#nanoTime()} the call started at
+     */
+    public void recordSuccess(long startTime, long rowsRead, long rowsWritten) {
+        record(startTime);
+        if (rowsRead > 0) {
+            this.rowsRead.add(rowsRead);
+        }
+        if (rowsWritten > 0) {
+            this.rowsWritten.add(rowsWritten);
+        }
+    }
+
+    /**
+     * @param startTime the {@link System#nanoTime()} the failed call started at
+     */
+    public void recordError(long startTime) {
+        record(startTime);
+        errors.increment();
+    }
+
+    private void record(long startTime) {
+        calls.increment();
+        latencies.record(System.nanoTime() - startTime);
+    }
+
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    public OperationStatistics getStatistics() {
+        return new OperationStatistics(operation.name(), calls.sum(), errors.sum(), rowsRead.sum(), rowsWritten.sum(),
+                toMicros(latencies.getValueAtPercentile(50)), toMicros(latencies.getValueAtPercentile(99)),
+                toMicros(latencies.getValueAtPercentile(99.9)));
+    }
+
+    void reset() {
+        calls.reset();
+        errors.reset();
+        rowsRead.reset();
+        rowsWritten.reset();
+        latencies.reset();
+    }
+
+    private static double toMicros(long nanos) {
+        return (double) nanos / TimeUnit.MICROSECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,76 @@
+package com.bright.peopledb.metrics;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import java.beans.ConstructorProperties;
+
+/**
+ * A point in time copy of the metrics of one operation. It is a bean rather than a record so JMX can expose it.
+ */
+public final class OperationStatistics {
+
+    private final String operation;
+    private final long calls;
+    private final long errors;
+    private final long rowsRead;
+    private final long rowsWritten;
+    private final double p50Micros;
+    private final double p99Micros;
+    private final double p999Micros;
+
+    @ConstructorProperties({"operation", "calls", "errors", "rowsRead", "rowsWritten", "p50Micros", "p99Micros", "p999Micros"})
+    public OperationStatistics(String operation, long calls, long errors, long rowsRead, long rowsWritten,
+                               double p50Micros, double p99Micros, double p999Micros) {
+        this.operation = operation;
+        this.calls = calls;
+        this.errors = errors;
+        this.rowsRead = rowsRead;
+        this.rowsWritten = rowsWritten;
+        this.p50Micros = p50Micros;
+        this.p99Micros = p99Micros;
+        this.p999Micros = p999Micros;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    public double getP50Micros() {
+        return p50Micros;
+    }
+
+    public double getP99Micros() {
+        return p99Micros;
+    }
+
+    public double getP999Micros() {
+        return p999Micros;
+    }
+
+    @Override
+    public String toString() {
+        return "%s[calls=%d, errors=%d, rowsRead=%d, rowsWritten=%d, p50=%.1fus, p99=%.1fus, p999=%.1fus]"
+                .formatted(operation, calls, errors, rowsRead, rowsWritten, p50Micros, p99Micros, p999Micros);
+    }
+}
@@ -0,0 +1,91 @@
+package com.bright.peopledb.metrics;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import com.bright.peopledb.model.CrudOperation;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The metrics of every {@link CrudOperation} of one repository class, shared by all instances of the class
+ * and registered with the platform MBean server when they are first used.
+ */
+public final class RepositoryMetrics implements RepositoryMetricsMXBean {
+
+    private static final ClassValue<RepositoryMetrics> REGISTRY = new ClassValue<>() {
+        @Override
+        protected RepositoryMetrics computeValue(Class<?> repositoryClass) {
+            RepositoryMetrics metrics = new RepositoryMetrics(repositoryClass.getSimpleName());
+            metrics.register();
+            return metrics;
+        }
+    };
+
+    private final String repository;
+    private final Map<CrudOperation, OperationMetrics> operations;
+
+    private RepositoryMetrics(String repository) {
+        this.repository = repository;
+        Map<CrudOperation, OperationMetrics> operationMetrics = new EnumMap<>(CrudOperation.class);
+        for (CrudOperation operation : CrudOperation.values()) {
+            operationMetrics.put(operation, new OperationMetrics(operation));
+        }
+        this.operations = Collections.unmodifiableMap(operationMetrics);
+    }
+
+    public static RepositoryMetrics of(Class<?> repositoryClass) {
+        return REGISTRY.get(repositoryClass);
+    }
+
+    public OperationMetrics operation(CrudOperation operation) {
+        return operations.get(operation);
+    }
+
+    @Override
+    public String getRepository() {
+        return repository;
+    }
+
+    @Override
+    public Map<String, OperationStatistics> getOperations() {
+        Map<String, OperationStatistics> statistics = new LinkedHashMap<>();
+        operations.forEach((operation, metrics) -> {
+            OperationStatistics operationStatistics = metrics.getStatistics();
+            if (operationStatistics.getCalls() > 0) {
+                statistics.put(operation.name(), operationStatistics);
+            }
+        });
+        return statistics;
+    }
+
+    @Override
+    public void reset() {
+        operations.values().forEach(OperationMetrics::reset);
+    }
+
+    static ObjectName objectName(String repository) throws JMException {
+        return new ObjectName("com.bright.peopledb:type=RepositoryMetrics,repository=" + ObjectName.quote(repository));
+    }
+
+    private void register() {
+        try {
+            ObjectName name = objectName(repository);
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+}
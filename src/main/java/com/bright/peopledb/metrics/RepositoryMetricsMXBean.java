@@ -0,0 +1,25 @@
+package com.bright.peopledb.metrics;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import java.util.Map;
+
+/**
+ * The JMX view of a repository's metrics, registered as com.bright.peopledb:type=RepositoryMetrics,repository=<class name>.
+ */
+public interface RepositoryMetricsMXBean {
+
+    String getRepository();
+
+    /**
+     * @return The statistics of the operations that were called at least once, by operation name
+     */
+    Map<String, OperationStatistics> getOperations();
+
+    void reset();
+}
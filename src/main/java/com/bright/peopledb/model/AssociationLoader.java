@@ -0,0 +1,19 @@
+package com.bright.peopledb.model;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+/**
+ * Loads the children and addresses of a person on first access.
+ * The loader must remove itself from the person, with {@link Person#setAssociationLoader(AssociationLoader)},
+ * before it adds the associations.
+ */
+@FunctionalInterface
+public interface AssociationLoader {
+
+    void load(Person person);
+}
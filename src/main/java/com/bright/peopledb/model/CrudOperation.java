@@ -11,9 +11,15 @@ public enum CrudOperation {
     SAVE,
     UPDATE,
     FIND_BY_ID,
+    FIND_BY_IDS,
     FIND_ALL,
+    FIND_PAGE,
+    STREAM_ALL,
     DELETE_ONE,
     DELETE_MANY,
     COUNT,
     ALTER,
+    UPSERT,
+    QUERY,
+    AGGREGATE,
 }
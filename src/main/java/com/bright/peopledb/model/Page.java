@@ -0,0 +1,57 @@
+package com.bright.peopledb.model;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * One page of a keyset (seek) paginated query.
+ * @param content the entities on the page, in ID order
+ * @param lastId the ID of the last entity on the page, the next page starts after it
+ * @param hasNext whether there are more entities after this page
+ */
+public record Page<T>(List<T> content, Long lastId, boolean hasNext) {
+
+    private static final String TOKEN_PREFIX = "after:";
+
+    public Page {
+        content = List.copyOf(content);
+    }
+
+    /**
+     * @return An opaque token to request the next page with, or null if this is the last page
+     */
+    public String continuationToken() {
+        if (!hasNext) {
+            return null;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((TOKEN_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param continuationToken a token from {@link #continuationToken()}, or null for the first page
+     * @return The ID that the page of the token starts after
+     */
+    public static long decodeContinuationToken(String continuationToken) {
+        if (Objects.isNull(continuationToken)) {
+            return 0;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(continuationToken), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(TOKEN_PREFIX)) {
+                throw new IllegalArgumentException("Invalid continuation token: " + continuationToken);
+            }
+            return Long.parseLong(decoded.substring(TOKEN_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid continuation token: " + continuationToken, e);
+        }
+    }
+}
@@ -8,6 +8,7 @@ package com.bright.peopledb.model;
 
 
 import com.bright.peopledb.annotation.Id;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -40,6 +41,10 @@ public class Person {
 
     private Set<Person> children = new HashSet<>();
     private Optional<Person> parent = Optional.empty();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private transient AssociationLoader associationLoader;
 
     public Person(Long id, String firstName, String lastName, ZonedDateTime dob, BigDecimal salary) {
         this(id, firstName, lastName, dob);
@@ -76,22 +81,27 @@ public class Person {
     }
 
     public void setHomeAddress(Address homeAddress) {
+        loadAssociations();
         this.homeAddress = Optional.ofNullable(homeAddress);
     }
 
     public Optional<Address> getHomeAddress() {
+        loadAssociations();
         return homeAddress;
     }
 
     public void setBusinessAddress(Address businessAddress) {
+        loadAssociations();
         this.businessAddress = Optional.ofNullable(businessAddress);
     }
 
     public Optional<Address> getBusinessAddress() {
+        loadAssociations();
         return businessAddress;
     }
 
     public void addChild(Person child) {
+        loadAssociations();
         children.add(child);
         child.setParent(this);
     }
@@ -104,7 +114,29 @@ public class Person {
         return parent;
     }
 
-//    public Set<Person> getChildren() {
-//        return children;
-//    }
+    public Set<Person> getChildren() {
+        loadAssociations();
+        return children;
+    }
+
+    /**
+     * @param associationLoader loads the children and addresses on first access, or null once they are loaded
+     */
+    public void setAssociationLoader(AssociationLoader associationLoader) {
+        this.associationLoader = associationLoader;
+    }
+
+    /**
+     * @return Whether the children and addresses are loaded, i.e. can be accessed without a query
+     */
+    public boolean isAssociationsLoaded() {
+        return Objects.isNull(associationLoader);
+    }
+
+    private void loadAssociations() {
+        AssociationLoader loader = associationLoader;
+        if (Objects.nonNull(loader)) {
+            loader.load(this);
+        }
+    }
 }
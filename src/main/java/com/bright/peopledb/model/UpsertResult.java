@@ -0,0 +1,23 @@
+package com.bright.peopledb.model;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import java.util.List;
+
+/**
+ * The outcome of upserting a number of entities.
+ * @param ids the IDs of the entities, in the order they were supplied
+ * @param inserted the number of rows that did not exist and were inserted
+ * @param updated the number of rows that already existed and were updated
+ */
+public record UpsertResult(List<Long> ids, int inserted, int updated) {
+
+    public UpsertResult {
+        ids = List.copyOf(ids);
+    }
+}
@@ -0,0 +1,286 @@
+package com.bright.peopledb.pool;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * A lightweight connection pool over {@link DriverManager}.
+ * <p>
+ * At most {@code maxSize} connections are borrowed at any time; a borrower waits up to the
+ * borrow timeout for one to be returned. {@code minSize} connections are opened up front.
+ * An idle connection is validated with {@link Connection#isValid(int)} before it is handed
+ * out again, and replaced if the check fails. Closing a borrowed connection returns it to the
+ * pool, rolling back any uncommitted work and restoring auto-commit.
+ */
+public class ConnectionPool implements DataSource, AutoCloseable {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final Duration borrowTimeout;
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<PooledConnection> idleConnections = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, int minSize, int maxSize, Duration borrowTimeout) throws SQLException {
+        this(url, null, null, minSize, maxSize, borrowTimeout);
+    }
+
+    /**
+     * @param url the JDBC URL of the database
+     * @param user the database user, or null to connect with the URL alone
+     * @param password the password of the user
+     * @param minSize the number of connections opened when the pool is created
+     * @param maxSize the maximum number of connections borrowed at the same time
+     * @param borrowTimeout how long {@link #getConnection()} waits for a connection before failing
+     */
+    public ConnectionPool(String url, String user, String password, int minSize, int maxSize, Duration borrowTimeout) throws SQLException {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Pool sizes must satisfy 0 <= minSize <= maxSize and maxSize >= 1 but were %d and %d".formatted(minSize, maxSize));
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.borrowTimeout = Objects.requireNonNull(borrowTimeout);
+        this.permits = new Semaphore(maxSize, true);
+        for (int i = 0; i < minSize; i++) {
+            idleConnections.push(openConnection());
+        }
+    }
+
+    /**
+     * @return A connection that is returned to the pool when it is closed
+     * @throws SQLTimeoutException if no connection became available within the borrow timeout
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        try {
+            if (!permits.tryAcquire(borrowTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new SQLTimeoutException("Timed out after %d ms waiting for a connection, %d of %d in use"
+                        .formatted(borrowTimeout.toMillis(), getActiveCount(), maxSize));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+        try {
+            PooledConnection pooledConnection;
+            while ((pooledConnection = idleConnections.poll()) != null) {
+                if (isValid(pooledConnection)) {
+                    return pooledConnection.borrow();
+                }
+                discard(pooledConnection);
+            }
+            return openConnection().borrow();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("The pool only hands out connections for its configured user");
+    }
+
+    /**
+     * @return The number of connections currently borrowed
+     */
+    public int getActiveCount() {
+        return maxSize - permits.availablePermits();
+    }
+
+    public int getIdleCount() {
+        return idleConnections.size();
+    }
+
+    /**
+     * @return The number of physical connections currently open, borrowed or idle
+     */
+    public int getOpenCount() {
+        return openConnections.get();
+    }
+
+    /**
+     * Closes the idle connections. Borrowed connections are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        PooledConnection pooledConnection;
+        while ((pooledConnection = idleConnections.poll()) != null) {
+            discard(pooledConnection);
+        }
+    }
+
+    private PooledConnection openConnection() throws SQLException {
+        Connection connection = Objects.isNull(user) ? DriverManager.getConnection(url) : DriverManager.getConnection(url, user, password);
+        openConnections.incrementAndGet();
+        return new PooledConnection(connection);
+    }
+
+    private void giveBack(PooledConnection pooledConnection) {
+        try {
+            Connection connection = pooledConnection.physicalConnection;
+            if (closed || connection.isClosed()) {
+                discard(pooledConnection);
+                return;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            idleConnections.push(pooledConnection);
+        } catch (SQLException e) {
+            discard(pooledConnection);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static boolean isValid(PooledConnection pooledConnection) {
+        try {
+            return pooledConnection.physicalConnection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void discard(PooledConnection pooledConnection) {
+        openConnections.decrementAndGet();
+        try {
+            pooledConnection.physicalConnection.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * A physical connection together with the proxy handed out to borrowers. The proxy is created once
+     * per physical connection, so callers can key per-connection state, such as statement caches, on it.
+     */
+    private final class PooledConnection implements InvocationHandler {
+
+        private final Connection physicalConnection;
+        private final Connection proxy;
+        private volatile boolean borrowed;
+
+        private PooledConnection(Connection physicalConnection) {
+            this.physicalConnection = physicalConnection;
+            this.proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, this);
+        }
+
+        private Connection borrow() {
+            borrowed = true;
+            return proxy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (borrowed) {
+                        borrowed = false;
+                        giveBack(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return !borrowed || physicalConnection.isClosed();
+                case "unwrap":
+                    if (args[0] == Connection.class) {
+                        return physicalConnection;
+                    }
+                    break;
+                case "isWrapperFor":
+                    if (args[0] == Connection.class) {
+                        return true;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + physicalConnection;
+                default:
+                    if (!borrowed) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+            }
+            try {
+                return method.invoke(physicalConnection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return DriverManager.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        DriverManager.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        DriverManager.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return DriverManager.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+}
@@ -0,0 +1,30 @@
+package com.bright.peopledb.query;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * The SQL of a {@link PersonQuery} with the values to bind to its parameters.
+ * @param sql the parameterised SQL, the same String instance for every query of the same shape
+ * @param parameters the parameter values, in order. Collections of values are bound as one array.
+ */
+public record CompiledQuery(String sql, List<Object> parameters) {
+
+    public CompiledQuery {
+        parameters = List.copyOf(parameters);
+    }
+
+    public void bind(PreparedStatement preparedStatement) throws SQLException {
+        for (int i = 0; i < parameters.size(); i++) {
+            preparedStatement.setObject(i + 1, parameters.get(i));
+        }
+    }
+}
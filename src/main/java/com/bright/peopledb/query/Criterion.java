@@ -0,0 +1,52 @@
+package com.bright.peopledb.query;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A condition on the columns of a {@link PersonQuery}, evaluated by the database.
+ * Criteria are immutable and are built from the fields of {@link PersonQuery}.
+ */
+public final class Criterion {
+
+    private final String sql;
+    private final List<Object> parameters;
+
+    Criterion(String sql, List<Object> parameters) {
+        this.sql = sql;
+        this.parameters = parameters;
+    }
+
+    public Criterion and(Criterion other) {
+        return combine("AND", other);
+    }
+
+    public Criterion or(Criterion other) {
+        return combine("OR", other);
+    }
+
+    public Criterion not() {
+        return new Criterion("NOT (" + sql + ")", parameters);
+    }
+
+    private Criterion combine(String operator, Criterion other) {
+        List<Object> combinedParameters = new ArrayList<>(parameters);
+        combinedParameters.addAll(other.parameters);
+        return new Criterion("(" + sql + ") " + operator + " (" + other.sql + ")", List.copyOf(combinedParameters));
+    }
+
+    String sql() {
+        return sql;
+    }
+
+    List<Object> parameters() {
+        return parameters;
+    }
+}
@@ -0,0 +1,94 @@
+package com.bright.peopledb.query;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A column of a {@link PersonQuery} that criteria and orderings are built from.
+ * Every value is bound as a parameter, so the SQL of a criterion never depends on the values compared.
+ * @param <V> the Java type of the column's values
+ */
+public class Field<V> {
+
+    private final String column;
+    private final Function<V, Object> toParameter;
+
+    Field(String column, Function<V, Object> toParameter) {
+        this.column = column;
+        this.toParameter = toParameter;
+    }
+
+    public Criterion eq(V value) {
+        return compare("=", value);
+    }
+
+    public Criterion notEq(V value) {
+        return compare("<>", value);
+    }
+
+    public Criterion lt(V value) {
+        return compare("<", value);
+    }
+
+    public Criterion lte(V value) {
+        return compare("<=", value);
+    }
+
+    public Criterion gt(V value) {
+        return compare(">", value);
+    }
+
+    public Criterion gte(V value) {
+        return compare(">=", value);
+    }
+
+    /**
+     * Both bounds are inclusive. Compiled as two comparisons instead of BETWEEN, so the slow-query log
+     * can tell which column each parameter belongs to, and mask it if needed.
+     */
+    public Criterion between(V low, V high) {
+        return gte(low).and(lte(high));
+    }
+
+    /**
+     * Compiled as "= ANY(?)" with the values bound as one array, so the SQL is the same however many values there are.
+     */
+    public Criterion in(Collection<? extends V> values) {
+        Object[] parameters = values.stream().map(toParameter).toArray();
+        return new Criterion(column + " = ANY(?)", List.of((Object) parameters));
+    }
+
+    public Criterion isNull() {
+        return new Criterion(column + " IS NULL", List.of());
+    }
+
+    public Criterion isNotNull() {
+        return new Criterion(column + " IS NOT NULL", List.of());
+    }
+
+    public Order asc() {
+        return new Order(column + " ASC");
+    }
+
+    public Order desc() {
+        return new Order(column + " DESC");
+    }
+
+    String column() {
+        return column;
+    }
+
+    private Criterion compare(String operator, V value) {
+        Objects.requireNonNull(value, "Use isNull() to compare with null");
+        return new Criterion(column + " " + operator + " ?", List.of(toParameter.apply(value)));
+    }
+}
@@ -0,0 +1,24 @@
+package com.bright.peopledb.query;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+/**
+ * The direction a {@link PersonQuery} is sorted by one of its fields in.
+ */
+public final class Order {
+
+    private final String sql;
+
+    Order(String sql) {
+        this.sql = sql;
+    }
+
+    String sql() {
+        return sql;
+    }
+}
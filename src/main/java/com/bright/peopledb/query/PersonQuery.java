@@ -0,0 +1,153 @@
+package com.bright.peopledb.query;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import com.bright.peopledb.enums.Region;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * A query for people that is filtered, sorted and limited by the database instead of in Java, e.g.
+ * <pre>{@code
+ * PersonQuery.where(lastName().eq("Smith"))
+ *         .and(salary().between(new BigDecimal("50000"), new BigDecimal("90000")))
+ *         .orderBy(dateOfBirth().desc())
+ *         .limit(100)
+ * }</pre>
+ * Queries are immutable, so each method returns a new query. A query compiles to parameterised SQL whose text
+ * depends only on its shape, which is cached, so queries of the same shape also share a prepared statement.
+ * The region is that of the person's home address.
+ */
+public final class PersonQuery {
+
+    private static final ZoneId UTC = ZoneId.of("+0");
+    private static final int SHAPE_CACHE_SIZE = 256;
+    private static final QueryShapeCache SHAPES = new QueryShapeCache(SHAPE_CACHE_SIZE);
+
+    private static final StringField FIRST_NAME = new StringField("PARENT.FIRST_NAME");
+    private static final StringField LAST_NAME = new StringField("PARENT.LAST_NAME");
+    private static final StringField EMAIL = new StringField("PARENT.EMAIL");
+    private static final Field<BigDecimal> SALARY = new Field<>("PARENT.SALARY", salary -> salary);
+    private static final Field<ZonedDateTime> DATE_OF_BIRTH = new Field<>("PARENT.DOB",
+            dob -> Timestamp.valueOf(dob.withZoneSameInstant(UTC).toLocalDateTime()));
+    private static final Field<Long> ID = new Field<>("PARENT.ID", id -> id);
+    private static final Field<Region> REGION = new Field<>("HOME.REGION", Region::toString);
+
+    private final Criterion criterion;
+    private final List<Order> orders;
+    private final Integer limit;
+
+    private PersonQuery(Criterion criterion, List<Order> orders, Integer limit) {
+        this.criterion = criterion;
+        this.orders = orders;
+        this.limit = limit;
+    }
+
+    public static StringField firstName() {
+        return FIRST_NAME;
+    }
+
+    public static StringField lastName() {
+        return LAST_NAME;
+    }
+
+    public static StringField email() {
+        return EMAIL;
+    }
+
+    public static Field<BigDecimal> salary() {
+        return SALARY;
+    }
+
+    public static Field<ZonedDateTime> dateOfBirth() {
+        return DATE_OF_BIRTH;
+    }
+
+    public static Field<Long> id() {
+        return ID;
+    }
+
+    public static Field<Region> region() {
+        return REGION;
+    }
+
+    /**
+     * @return A query for all people
+     */
+    public static PersonQuery all() {
+        return new PersonQuery(null, List.of(), null);
+    }
+
+    public static PersonQuery where(Criterion criterion) {
+        return new PersonQuery(Objects.requireNonNull(criterion), List.of(), null);
+    }
+
+    public PersonQuery and(Criterion other) {
+        return new PersonQuery(Objects.isNull(criterion) ? other : criterion.and(other), orders, limit);
+    }
+
+    public PersonQuery or(Criterion other) {
+        return new PersonQuery(Objects.isNull(criterion) ? other : criterion.or(other), orders, limit);
+    }
+
+    /**
+     * @param orders the sort keys, most significant first. They replace any earlier ordering.
+     */
+    public PersonQuery orderBy(Order... orders) {
+        return new PersonQuery(criterion, List.of(orders), limit);
+    }
+
+    /**
+     * @param limit the maximum number of people returned
+     */
+    public PersonQuery limit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1 but was " + limit);
+        }
+        return new PersonQuery(criterion, orders, limit);
+    }
+
+    /**
+     * Appends the query's WHERE, ORDER BY and FETCH FIRST clauses to a statement of a repository.
+     * @param baseSql a SELECT from PERSON AS PARENT, left joined to ADDRESSES AS HOME if the query uses the region,
+     *                with no clauses after its FROM clause
+     * @return The SQL and the values to bind to it
+     */
+    public CompiledQuery compile(String baseSql) {
+        String where = Objects.isNull(criterion) ? "" : criterion.sql();
+        String orderBy = orders.stream().map(Order::sql).collect(joining(", "));
+        String sql = SHAPES.sqlFor(new QueryShapeCache.QueryShape(baseSql, where, orderBy, Objects.nonNull(limit)));
+        List<Object> parameters = new ArrayList<>();
+        if (Objects.nonNull(criterion)) {
+            parameters.addAll(criterion.parameters());
+        }
+        if (Objects.nonNull(limit)) {
+            parameters.add(limit);
+        }
+        return new CompiledQuery(sql, parameters);
+    }
+
+    /**
+     * Like {@link #compile(String)}, but without the query's ordering and limit, e.g. for counting the matching people.
+     */
+    public CompiledQuery compileCount(String baseSql) {
+        return new PersonQuery(criterion, List.of(), null).compile(baseSql);
+    }
+
+    static QueryShapeCache shapeCache() {
+        return SHAPES;
+    }
+}
@@ -0,0 +1,64 @@
+package com.bright.peopledb.query;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The SQL compiled for each query shape, i.e. the base statement, the criteria, the ordering and
+ * whether there is a limit, but not the values bound. Handing out the same SQL String for the same
+ * shape saves rebuilding the statement and makes the statement cache lookups cheap identity hits.
+ */
+final class QueryShapeCache {
+
+    record QueryShape(String baseSql, String where, String orderBy, boolean limited) {}
+
+    private final Map<QueryShape, String> sqlByShape;
+    private long hits;
+    private long misses;
+
+    QueryShapeCache(int maxSize) {
+        this.sqlByShape = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<QueryShape, String> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    synchronized String sqlFor(QueryShape shape) {
+        String sql = sqlByShape.get(shape);
+        if (sql != null) {
+            hits++;
+            return sql;
+        }
+        misses++;
+        StringBuilder builder = new StringBuilder(shape.baseSql().strip());
+        if (!shape.where().isEmpty()) {
+            builder.append("\nWHERE ").append(shape.where());
+        }
+        if (!shape.orderBy().isEmpty()) {
+            builder.append("\nORDER BY ").append(shape.orderBy());
+        }
+        if (shape.limited()) {
+            builder.append("\nFETCH FIRST ? ROWS ONLY");
+        }
+        sql = builder.toString();
+        sqlByShape.put(shape, sql);
+        return sql;
+    }
+
+    synchronized long getHits() {
+        return hits;
+    }
+
+    synchronized long getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,28 @@
+package com.bright.peopledb.query;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import java.util.List;
+
+/**
+ * A text column of a {@link PersonQuery}, which can also be matched by prefix.
+ */
+public final class StringField extends Field<String> {
+
+    StringField(String column) {
+        super(column, value -> value);
+    }
+
+    /**
+     * Compiled as LIKE with a trailing wildcard only, the wildcards in the prefix escaped, so an index on the column can serve it.
+     */
+    public Criterion startsWith(String prefix) {
+        String escapedPrefix = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return new Criterion(column() + " LIKE ? ESCAPE '\\'", List.of(escapedPrefix + "%"));
+    }
+}
@@ -27,12 +27,31 @@ public class AddressRepository extends CrudRepository<Address> {
     SELECT ID, STREET_ADDRESS, ADDRESS2, CITY, STATE, POSTCODE, COUNTY, REGION, COUNTRY
     FROM ADDRESSES WHERE ID = ?""";
 
+    public static final String FIND_ADDRESSES_SQL = """
+    SELECT ID, STREET_ADDRESS, ADDRESS2, CITY, STATE, POSTCODE, COUNTY, REGION, COUNTRY
+    FROM ADDRESSES WHERE ID = ANY(?)""";
+
+    public static final String UPSERT_ADDRESS_SQL = """
+    MERGE INTO ADDRESSES (STREET_ADDRESS, ADDRESS2, CITY, STATE, POSTCODE, COUNTY, REGION, COUNTRY, ID)
+    KEY(ID) VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+
+    public static final String DELETE_ADDRESSES_SQL = "DELETE FROM ADDRESSES WHERE ID = ANY(?)";
+
     protected AddressRepository(Connection connection) {
         super(connection);
     }
 
+    protected AddressRepository(Connection connection, int statementCacheSize) {
+        super(connection, statementCacheSize);
+    }
+
+    AddressRepository(ConnectionSource connectionSource) {
+        super(connectionSource);
+    }
+
     @Override
     @SQL(crudOperation = CrudOperation.FIND_BY_ID, value = FIND_ADDRESS_SQL)
+    @SQL(crudOperation = CrudOperation.FIND_BY_IDS, value = FIND_ADDRESSES_SQL)
     Address extractEntityFromResultSet(ResultSet resultSet) throws SQLException {
         long id = resultSet.getLong("ID");
         String streetAddress = resultSet.getString("STREET_ADDRESS");
@@ -48,6 +67,7 @@ public class AddressRepository extends CrudRepository<Address> {
 
     @Override
     @SQL(crudOperation = CrudOperation.SAVE, value = SAVE_ADDRESS_SQL)
+    @SQL(crudOperation = CrudOperation.UPSERT, value = UPSERT_ADDRESS_SQL)
     protected void mapForSave(Address address, PreparedStatement preparedStatement) throws SQLException {
         preparedStatement.setString(1, address.streetAddress());
         preparedStatement.setString(2, address.address2());
@@ -60,6 +80,16 @@ public class AddressRepository extends CrudRepository<Address> {
 
     }
 
+    @Override
+    protected String getTableName() {
+        return "ADDRESSES";
+    }
+
+    @Override
+    protected String getDeleteManySql() {
+        return DELETE_ADDRESSES_SQL;
+    }
+
     @Override
     protected void mapForUpdate(Address entity, PreparedStatement preparedStatement) {
 
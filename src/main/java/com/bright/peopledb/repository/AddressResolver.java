@@ -0,0 +1,214 @@
+package com.bright.peopledb.repository;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import com.bright.peopledb.model.Address;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resolves the ID of an address by its content, so people sharing an address share one ADDRESSES row.
+ * <p>
+ * Identical addresses resolved together share the row inserted for the first of them. An address
+ * that is not known yet is optionally looked up in the database by the normalised address (trimmed,
+ * lower case, single spaced), and only inserted if it is not found.
+ * <p>
+ * The IDs can also be remembered across operations, in a bounded, least recently used map keyed by the
+ * normalised address. The map is not transactional: after a rollback it may hold IDs of rows that were
+ * never committed, so it is off by default, and whoever turns it on must {@link #clear() clear} it after
+ * every rollback.
+ * <p>
+ * The monitor only guards the map; the database is queried outside of it, so threads resolving
+ * addresses do not wait for each other's round trips, and the resolver never holds its monitor
+ * while it waits for a connection. Two threads saving the same new address at the same time may
+ * therefore both insert it.
+ */
+final class AddressResolver {
+
+    public static final String FIND_ADDRESS_ID_SQL = """
+    SELECT ID FROM ADDRESSES
+    WHERE %s
+    FETCH FIRST 1 ROW ONLY""".formatted(String.join(" AND ",
+            normalisedColumn("STREET_ADDRESS"), normalisedColumn("ADDRESS2"), normalisedColumn("CITY"),
+            normalisedColumn("STATE"), normalisedColumn("POSTCODE"), normalisedColumn("COUNTY"),
+            normalisedColumn("REGION"), normalisedColumn("COUNTRY")));
+
+    private record AddressKey(String streetAddress, String address2, String city, String state,
+                              String postcode, String county, String region, String country) {
+
+        static AddressKey of(Address address) {
+            return new AddressKey(normalise(address.streetAddress()), normalise(address.address2()), normalise(address.city()),
+                    normalise(address.state()), normalise(address.postcode()), normalise(address.county()),
+                    normalise(Objects.toString(address.region(), null)), normalise(address.country()));
+        }
+    }
+
+    private final AddressRepository addressRepository;
+    private final int maxSize;
+    private final Map<AddressKey, Long> idsByAddress;
+    private volatile boolean lookupDatabase;
+    private volatile boolean rememberIds;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder databaseHits = new LongAdder();
+    private final LongAdder inserts = new LongAdder();
+
+    AddressResolver(AddressRepository addressRepository, int maxSize, boolean lookupDatabase, boolean rememberIds) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Address cache size must be at least 1 but was " + maxSize);
+        }
+        this.addressRepository = addressRepository;
+        this.maxSize = maxSize;
+        this.lookupDatabase = lookupDatabase;
+        this.rememberIds = rememberIds;
+        this.idsByAddress = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<AddressKey, Long> eldest) {
+                return size() > AddressResolver.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return The ID of the address: its own ID if it has one, else the ID of an identical
+     * address saved before, else the ID of the newly inserted address. The ID is set on the address.
+     */
+    Long resolve(Address address) {
+        AddressKey key = AddressKey.of(address);
+        Long id = Objects.nonNull(address.id()) ? address.id() : findKnownId(key);
+        if (Objects.isNull(id)) {
+            id = addressRepository.save(address).id();
+            inserts.increment();
+        }
+        if (Objects.nonNull(id)) {
+            remember(key, address, id);
+        }
+        return id;
+    }
+
+    /**
+     * Resolves the IDs of many addresses, inserting the addresses not known yet with one
+     * {@link AddressRepository#saveAll(Iterable, int)} instead of one save per address.
+     */
+    void resolveAll(Collection<Address> addresses, int batchSize) {
+        Map<AddressKey, List<Address>> unknownAddresses = new LinkedHashMap<>();
+        for (Address address : addresses) {
+            AddressKey key = AddressKey.of(address);
+            List<Address> sameAddresses = unknownAddresses.get(key);
+            Long id = Objects.nonNull(address.id()) ? address.id() : Objects.isNull(sameAddresses) ? findKnownId(key) : null;
+            if (Objects.nonNull(id)) {
+                remember(key, address, id);
+            } else if (Objects.nonNull(sameAddresses)) {
+                sameAddresses.add(address);
+            } else {
+                unknownAddresses.put(key, new ArrayList<>(List.of(address)));
+            }
+        }
+        if (unknownAddresses.isEmpty()) {
+            return;
+        }
+        List<Address> newAddresses = unknownAddresses.values().stream().map(sameAddresses -> sameAddresses.get(0)).toList();
+        addressRepository.saveAll(newAddresses, batchSize);
+        inserts.add(newAddresses.size());
+        unknownAddresses.forEach((key, sameAddresses) -> {
+            Long id = sameAddresses.get(0).id();
+            hits.add(sameAddresses.size() - 1);
+            sameAddresses.forEach(address -> remember(key, address, id));
+        });
+    }
+
+    private Long findKnownId(AddressKey key) {
+        Long id = rememberedId(key);
+        if (Objects.nonNull(id)) {
+            hits.increment();
+        } else if (lookupDatabase && Objects.nonNull(id = findId(key))) {
+            databaseHits.increment();
+        }
+        return id;
+    }
+
+    private synchronized Long rememberedId(AddressKey key) {
+        return idsByAddress.get(key);
+    }
+
+    private void remember(AddressKey key, Address address, Long id) {
+        if (!id.equals(address.id())) {
+            IdAccessor.of(Address.class).setId(address, id);
+        }
+        if (rememberIds) {
+            synchronized (this) {
+                idsByAddress.put(key, id);
+            }
+        }
+    }
+
+    void setLookupDatabase(boolean lookupDatabase) {
+        this.lookupDatabase = lookupDatabase;
+    }
+
+    void setRememberIds(boolean rememberIds) {
+        this.rememberIds = rememberIds;
+        if (!rememberIds) {
+            clear();
+        }
+    }
+
+    synchronized void clear() {
+        idsByAddress.clear();
+    }
+
+    /**
+     * Forgets the addresses with the given IDs, e.g. because they may have been deleted.
+     */
+    synchronized void forget(Collection<Long> ids) {
+        Set<Long> forgotten = new HashSet<>(ids);
+        idsByAddress.values().removeIf(forgotten::contains);
+    }
+
+    synchronized AddressResolverStatistics getStatistics() {
+        return new AddressResolverStatistics(hits.sum(), databaseHits.sum(), inserts.sum(), idsByAddress.size());
+    }
+
+    private Long findId(AddressKey key) {
+        try {
+            return addressRepository.getConnectionSource().withConnection(statementCache -> {
+                PreparedStatement ps = statementCache.prepare(FIND_ADDRESS_ID_SQL);
+                String[] values = {key.streetAddress(), key.address2(), key.city(), key.state(),
+                        key.postcode(), key.county(), key.region(), key.country()};
+                for (int i = 0; i < values.length; i++) {
+                    ps.setString(i + 1, values[i]);
+                }
+                try (ResultSet resultSet = ps.executeQuery()) {
+                    return resultSet.next() ? resultSet.getLong(1) : null;
+                }
+            });
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private static String normalise(String value) {
+        return Objects.isNull(value) ? null : value.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static String normalisedColumn(String column) {
+        return "LOWER(REGEXP_REPLACE(TRIM(%s), '\\s+', ' ')) IS NOT DISTINCT FROM ?".formatted(column);
+    }
+}
@@ -0,0 +1,25 @@
+package com.bright.peopledb.repository;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+/**
+ * @param hits the number of addresses whose ID was found in memory
+ * @param databaseHits the number of addresses whose ID was found by looking them up in the database
+ * @param inserts the number of addresses that had to be inserted
+ * @param size the number of addresses currently remembered
+ */
+public record AddressResolverStatistics(long hits, long databaseHits, long inserts, int size) {
+
+    /**
+     * @return The share of resolved addresses that reused an existing row
+     */
+    public double hitRate() {
+        long resolved = hits + databaseHits + inserts;
+        return resolved == 0 ? 0 : (double) (hits + databaseHits) / resolved;
+    }
+}
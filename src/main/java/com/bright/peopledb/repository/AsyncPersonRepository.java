@@ -0,0 +1,134 @@
+package com.bright.peopledb.repository;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import com.bright.peopledb.exception.DataException;
+import com.bright.peopledb.model.Person;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking variants of the {@link PersonRepository} lookups, for callers that fan out many independent calls.
+ * <p>
+ * Every call runs as its own task on a virtual thread where the JDK provides them (Java 21 and later),
+ * and on a fixed pool of maxConcurrency platform threads otherwise. Only maxConcurrency calls use the
+ * database at once; the others wait for a permit, which costs a parked virtual thread rather than a
+ * connection. The repository should be backed by a {@link javax.sql.DataSource} with at least
+ * maxConcurrency connections, otherwise the calls take turns on the repository's single connection.
+ */
+public class AsyncPersonRepository implements AutoCloseable {
+
+    private final PersonRepository repository;
+    private final Semaphore permits;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+
+    /**
+     * @param repository the repository the calls are delegated to
+     * @param maxConcurrency the maximum number of calls using the database at once
+     */
+    public AsyncPersonRepository(PersonRepository repository, int maxConcurrency) {
+        this(repository, maxConcurrency, newVirtualThreadPerTaskExecutor(), true);
+    }
+
+    /**
+     * @param executor runs the calls; a null executor falls back to a fixed pool of maxConcurrency platform threads
+     */
+    AsyncPersonRepository(PersonRepository repository, int maxConcurrency, ExecutorService executor) {
+        this(repository, maxConcurrency, executor, false);
+    }
+
+    /**
+     * @param virtualThreads whether the executor, if there is one, runs every call on a virtual thread
+     */
+    private AsyncPersonRepository(PersonRepository repository, int maxConcurrency, ExecutorService executor, boolean virtualThreads) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max concurrency must be at least 1 but was " + maxConcurrency);
+        }
+        this.repository = repository;
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.virtualThreads = virtualThreads && executor != null;
+        this.executor = executor != null ? executor : Executors.newFixedThreadPool(maxConcurrency);
+    }
+
+    public CompletableFuture<Person> saveAsync(Person person) {
+        return supplyAsync(() -> repository.save(person));
+    }
+
+    public CompletableFuture<Optional<Person>> findByIDAsync(Long id) {
+        return supplyAsync(() -> repository.findByID(id));
+    }
+
+    public CompletableFuture<List<Person>> findAllByIdsAsync(Collection<Long> ids) {
+        return supplyAsync(() -> repository.findAllByIds(ids));
+    }
+
+    /**
+     * @return Whether the calls run on virtual threads, rather than on the platform thread fallback
+     */
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Waits for the running calls to finish. The repository itself is left open, as it is owned by the caller.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    <R> CompletableFuture<R> supplyAsync(Supplier<R> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DataException("Interrupted while waiting for a database permit", e);
+            }
+            try {
+                return call.get();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    /**
+     * @return The JDK's virtual thread per task executor, looked up reflectively so the code still
+     * compiles and runs on Java 17, or null if the running JDK has no virtual threads
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) MethodHandles.publicLookup()
+                    .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class))
+                    .invoke();
+        } catch (Throwable e) {
+            // Not there before Java 19, and a disabled preview feature on Java 19 and 20.
+            return null;
+        }
+    }
+}
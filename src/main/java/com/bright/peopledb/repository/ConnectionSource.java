@@ -0,0 +1,220 @@
+package com.bright.peopledb.repository;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out the connection (and its prepared statement cache) that a repository operation runs on.
+ * Repositories that work together, like PersonRepository and its AddressRepository, share one source,
+ * so that nested operations run on the same connection.
+ */
+abstract class ConnectionSource implements AutoCloseable {
+
+    @FunctionalInterface
+    interface SqlFunction<R> {
+        R apply(StatementCache statementCache) throws SQLException;
+    }
+
+    /**
+     * Runs the work with exclusive use of a connection and its statement cache.
+     */
+    abstract <R> R withConnection(SqlFunction<R> work) throws SQLException;
+
+    /**
+     * Hands out a connection for work that outlives a single call, such as an open stream.
+     * It must be given back with {@link #release(Connection)}.
+     */
+    abstract Connection borrow() throws SQLException;
+
+    abstract void release(Connection connection) throws SQLException;
+
+    abstract StatementCacheStatistics getStatistics();
+
+    /**
+     * Closes the cached prepared statements; the connections themselves belong to the caller.
+     */
+    @Override
+    public abstract void close();
+
+    /**
+     * Runs the work as an operation of the statement cache, so statements it evicts stay open until the outermost operation ends.
+     */
+    private static <R> R apply(SqlFunction<R> work, StatementCache statementCache) throws SQLException {
+        statementCache.enter();
+        try {
+            return work.apply(statementCache);
+        } finally {
+            statementCache.exit();
+        }
+    }
+
+    static ConnectionSource of(Connection connection, int statementCacheSize) {
+        return new SingleConnectionSource(connection, statementCacheSize);
+    }
+
+    static ConnectionSource of(DataSource dataSource, int statementCacheSize) {
+        return new DataSourceConnectionSource(dataSource, statementCacheSize);
+    }
+
+    /**
+     * Serialises the operations of all threads on the one connection supplied by the caller.
+     */
+    private static final class SingleConnectionSource extends ConnectionSource {
+
+        private final Connection connection;
+        private final StatementCache statementCache;
+
+        private SingleConnectionSource(Connection connection, int statementCacheSize) {
+            this.connection = connection;
+            this.statementCache = new StatementCache(connection, statementCacheSize);
+        }
+
+        @Override
+        <R> R withConnection(SqlFunction<R> work) throws SQLException {
+            synchronized (connection) {
+                return apply(work, statementCache);
+            }
+        }
+
+        @Override
+        Connection borrow() {
+            return connection;
+        }
+
+        @Override
+        void release(Connection connection) {
+            // the connection belongs to the caller
+        }
+
+        @Override
+        StatementCacheStatistics getStatistics() {
+            synchronized (connection) {
+                return statementCache.getStatistics();
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (connection) {
+                statementCache.close();
+            }
+        }
+    }
+
+    /**
+     * Borrows a connection from the data source per operation. A nested operation on the same
+     * thread reuses the connection borrowed by the outer one. Statement caches are kept per
+     * physical connection, so they are reused whenever the pool hands out the same connection again,
+     * and are dropped once the pool has closed that connection. An operation holds the monitor of its
+     * statement cache, like the single connection source holds that of its connection, so reading the
+     * statistics of a cache or closing it waits for the operation using it to finish.
+     */
+    private static final class DataSourceConnectionSource extends ConnectionSource {
+
+        private final DataSource dataSource;
+        private final int statementCacheSize;
+        private final Map<Connection, StatementCache> statementCaches = new HashMap<>();
+        private final ThreadLocal<StatementCache> borrowed = new ThreadLocal<>();
+
+        private DataSourceConnectionSource(DataSource dataSource, int statementCacheSize) {
+            if (statementCacheSize < 1) {
+                throw new IllegalArgumentException("Statement cache size must be at least 1 but was " + statementCacheSize);
+            }
+            this.dataSource = dataSource;
+            this.statementCacheSize = statementCacheSize;
+        }
+
+        @Override
+        <R> R withConnection(SqlFunction<R> work) throws SQLException {
+            StatementCache current = borrowed.get();
+            if (current != null) {
+                return apply(work, current);
+            }
+            try (Connection connection = dataSource.getConnection()) {
+                StatementCache statementCache = statementCacheFor(connection);
+                synchronized (statementCache) {
+                    borrowed.set(statementCache);
+                    try {
+                        return apply(work, statementCache);
+                    } finally {
+                        borrowed.remove();
+                    }
+                }
+            }
+        }
+
+        @Override
+        Connection borrow() throws SQLException {
+            return dataSource.getConnection();
+        }
+
+        @Override
+        void release(Connection connection) throws SQLException {
+            connection.close();
+        }
+
+        private StatementCache statementCacheFor(Connection connection) throws SQLException {
+            Connection physicalConnection = connection.isWrapperFor(Connection.class) ? connection.unwrap(Connection.class) : connection;
+            synchronized (statementCaches) {
+                StatementCache statementCache = statementCaches.get(physicalConnection);
+                if (statementCache == null) {
+                    statementCaches.values().removeIf(StatementCache::isConnectionClosed);
+                    statementCache = new StatementCache(physicalConnection, statementCacheSize);
+                    statementCaches.put(physicalConnection, statementCache);
+                }
+                return statementCache;
+            }
+        }
+
+        @Override
+        StatementCacheStatistics getStatistics() {
+            long hits = 0, misses = 0, evictions = 0;
+            int size = 0;
+            for (StatementCacheStatistics statistics : snapshot().stream().map(DataSourceConnectionSource::statisticsOf).toList()) {
+                hits += statistics.hits();
+                misses += statistics.misses();
+                evictions += statistics.evictions();
+                size += statistics.size();
+            }
+            return new StatementCacheStatistics(hits, misses, evictions, size);
+        }
+
+        @Override
+        public void close() {
+            List<StatementCache> caches;
+            synchronized (statementCaches) {
+                caches = snapshot();
+                statementCaches.clear();
+            }
+            for (StatementCache statementCache : caches) {
+                synchronized (statementCache) {
+                    statementCache.close();
+                }
+            }
+        }
+
+        private static StatementCacheStatistics statisticsOf(StatementCache statementCache) {
+            synchronized (statementCache) {
+                return statementCache.getStatistics();
+            }
+        }
+
+        private List<StatementCache> snapshot() {
+            synchronized (statementCaches) {
+                return new ArrayList<>(statementCaches.values());
+            }
+        }
+    }
+}
@@ -8,31 +8,94 @@ package com.bright.peopledb.repository;
 
 
 import com.bright.peopledb.annotation.Id;
-import com.bright.peopledb.annotation.MultiSQL;
-import com.bright.peopledb.annotation.SQL;
+import com.bright.peopledb.diagnostics.ResultExtractionEvent;
+import com.bright.peopledb.diagnostics.SlowQueryLog;
 import com.bright.peopledb.exception.DataException;
+import com.bright.peopledb.metrics.OperationMetrics;
+import com.bright.peopledb.metrics.RepositoryMetrics;
 import com.bright.peopledb.model.CrudOperation;
+import com.bright.peopledb.model.UpsertResult;
 
+import javax.sql.DataSource;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static java.util.stream.Collectors.joining;
 
-abstract class CrudRepository<T> {
+abstract class CrudRepository<T> implements AutoCloseable {
+
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final int DEFAULT_STATEMENT_CACHE_SIZE = 32;
+    public static final int DEFAULT_FETCH_SIZE = 500;
+    public static final int DEFAULT_ID_CHUNK_SIZE = 500;
+    private static final String FIND_EXISTING_IDS_SQL = "SELECT ID FROM %s WHERE ID = ANY(?)";
 
     protected Connection connection;
+    private final RepositoryMetadata metadata = RepositoryMetadata.of(getClass());
     private final String sqlStatementNotDefined = "SQL Statement not defined";
-    private final PreparedStatement savePreparedStatement;
-    private final PreparedStatement findByIDPreparedStatement;
+    private final ConnectionSource connectionSource;
+    private volatile EntityCache<T> entityCache;
+    private final Object entityCacheLock = new Object();
+    private long entityCacheGeneration;
+    private final List<EntityListener<T>> entityListeners = new CopyOnWriteArrayList<>();
+    private final RepositoryMetrics metrics = RepositoryMetrics.of(getClass());
+    private final RowMapper<T> defaultRowMapper = new RowMapper<>() {
+        @Override
+        public T extract(ResultSet resultSet) throws SQLException {
+            return extractEntityFromResultSet(resultSet);
+        }
+
+        @Override
+        public boolean belongsTo(T entity, ResultSet resultSet) throws SQLException {
+            return CrudRepository.this.belongsTo(entity, resultSet);
+        }
+
+        @Override
+        public void mergeRow(T entity, ResultSet resultSet) throws SQLException {
+            CrudRepository.this.mergeRow(entity, resultSet);
+        }
+    };
 
     protected CrudRepository(Connection connection) {
+        this(connection, DEFAULT_STATEMENT_CACHE_SIZE);
+    }
+
+    /**
+     * @param connection the connection used by every operation of the repository.
+     *                   Threads sharing the repository take turns on the connection.
+     * @param statementCacheSize the number of prepared statements kept open for reuse
+     */
+    protected CrudRepository(Connection connection, int statementCacheSize) {
+        this(ConnectionSource.of(connection, statementCacheSize));
+        this.connection = connection;
+    }
+
+    /**
+     * @param dataSource the data source, typically a connection pool, that every operation borrows a connection from.
+     *                   The repository can be shared by any number of threads.
+     * @param statementCacheSize the number of prepared statements kept open for reuse, per pooled connection
+     */
+    protected CrudRepository(DataSource dataSource, int statementCacheSize) {
+        this(ConnectionSource.of(dataSource, statementCacheSize));
+    }
+
+    /**
+     * @param connectionSource the source shared with the repositories this one works together with
+     */
+    CrudRepository(ConnectionSource connectionSource) {
+        this.connectionSource = connectionSource;
         try
         {
-            this.connection = connection;
-            savePreparedStatement = connection.prepareStatement(getSqlByAnnotation(CrudOperation.SAVE, this::getSaveSQL), Statement.RETURN_GENERATED_KEYS);
-            findByIDPreparedStatement = connection.prepareStatement(getSqlByAnnotation(CrudOperation.FIND_BY_ID, this::getFindByIDSql));
+            connectionSource.withConnection(statementCache -> {
+                prepareSaveStatement(statementCache);
+                return statementCache.prepare(getSqlByAnnotation(CrudOperation.FIND_BY_ID, this::getFindByIDSql));
+            });
         } catch (SQLException e) {
            e.printStackTrace();
            throw new DataException("Unable to create prepared statements for CrudRepository");
@@ -45,64 +108,501 @@ abstract class CrudRepository<T> {
      */
     public T save(T entity){
         try{
-            mapForSave(entity, savePreparedStatement);
-            int recordsAffected = savePreparedStatement.executeUpdate(); //to execute the query
-            ResultSet resultSet = savePreparedStatement.getGeneratedKeys();
-            while (resultSet.next()){
-                long id = resultSet.getLong(1);
-                setIdByAnnotation(id, entity);
-                postSave(entity, id);
-            }
+            execute(CrudOperation.SAVE, saved -> 0, saved -> 1, statementCache -> {
+                PreparedStatement savePreparedStatement = prepareSaveStatement(statementCache);
+                mapForSave(entity, savePreparedStatement);
+                savePreparedStatement.executeUpdate(); //to execute the query
+                Long id = null;
+                try (ResultSet resultSet = savePreparedStatement.getGeneratedKeys()) {
+                    if (resultSet.next()) {
+                        id = resultSet.getLong(1);
+                    }
+                }
+                if (Objects.nonNull(id)) {
+                    setIdByAnnotation(id, entity);
+                    postSave(entity, id);
+                    entityListeners.forEach(listener -> listener.saved(entity));
+                }
+                return entity;
+            });
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return entity;
+    }
+
+    /**
+     * Saves the entities using JDBC batching, with {@link #DEFAULT_BATCH_SIZE} rows per batch.
+     * @param entities the entities to be saved inside the database
+     * @return The saved entities, in the order they were supplied
+     */
+    public List<T> saveAll(Iterable<T> entities) {
+        return saveAll(entities, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Saves the entities with one executeBatch() round trip per batchSize rows instead of
+     * one executeUpdate() per row. The generated keys are mapped back onto each entity's
+     * {@link Id} field and postSave is still run for every entity once its batch is flushed.
+     * @param entities the entities to be saved inside the database
+     * @param batchSize the number of rows sent to the database per batch
+     * @return The saved entities, in the order they were supplied
+     */
+    public List<T> saveAll(Iterable<T> entities, int batchSize) {
+        return saveAll(entities, batchSize, true);
+    }
+
+    /**
+     * @param runPostSave whether postSave runs for each saved entity. Callers that save
+     *                    the associated entities themselves, e.g. level by level, turn it off.
+     */
+    List<T> saveAll(Iterable<T> entities, int batchSize, boolean runPostSave) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1 but was " + batchSize);
+        }
+        try {
+            return execute(CrudOperation.SAVE, saved -> 0, List::size, statementCache -> {
+                PreparedStatement savePreparedStatement = prepareSaveStatement(statementCache);
+                List<T> savedEntities = new ArrayList<>();
+                List<T> batch = new ArrayList<>(batchSize);
+                for (T entity : entities) {
+                    mapForSave(entity, savePreparedStatement);
+                    savePreparedStatement.addBatch();
+                    batch.add(entity);
+                    if (batch.size() == batchSize) {
+                        executeSaveBatch(savePreparedStatement, batch, runPostSave);
+                        savedEntities.addAll(batch);
+                        batch.clear();
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    executeSaveBatch(savePreparedStatement, batch, runPostSave);
+                    savedEntities.addAll(batch);
+                }
+                return savedEntities;
+            });
         } catch (SQLException e) {
             e.printStackTrace();
+            throw new DataException("Unable to save entities in batch");
         }
+    }
+
+    private void executeSaveBatch(PreparedStatement savePreparedStatement, List<T> batch, boolean runPostSave) throws SQLException {
+        savePreparedStatement.executeBatch();
+        // The keys have to be read before postSave runs, as saving children re-executes savePreparedStatement.
+        long[] ids = new long[batch.size()];
+        int index = 0;
+        try (ResultSet resultSet = savePreparedStatement.getGeneratedKeys()) {
+            while (resultSet.next() && index < ids.length) {
+                ids[index++] = resultSet.getLong(1);
+            }
+        }
+        if (index != batch.size()) {
+            throw new DataException("Expected %d generated keys but received %d".formatted(batch.size(), index));
+        }
+        for (int i = 0; i < ids.length; i++) {
+            setIdByAnnotation(ids[i], batch.get(i));
+            if (runPostSave) {
+                postSave(batch.get(i), ids[i]);
+            }
+        }
+        for (T entity : batch) {
+            entityListeners.forEach(listener -> listener.saved(entity));
+        }
+    }
+
+    /**
+     * Inserts the entity if it has no ID or no row with its ID exists, and updates the row otherwise,
+     * without loading the entity first.
+     * @return The entity, with its ID set
+     */
+    public T saveOrUpdate(T entity) {
+        upsertAll(List.of(entity));
         return entity;
     }
 
+    /**
+     * Upserts the entities with {@link #DEFAULT_BATCH_SIZE} rows per batch.
+     * @see #upsertAll(Iterable, int)
+     */
+    public UpsertResult upsertAll(Iterable<T> entities) {
+        return upsertAll(entities, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Inserts the entities without an ID in batches like {@link #saveAll(Iterable, int)} does, and writes the
+     * others with batches of the UPSERT statement, a MERGE keyed on ID, so every column of an existing row is
+     * overwritten and a missing row is inserted with the entity's ID. Which IDs exist is selected beforehand
+     * with one query per {@link #DEFAULT_ID_CHUNK_SIZE} IDs, only to count the inserted and updated rows.
+     * Associated entities, e.g. children, are not upserted.
+     * @param entities the entities to upsert
+     * @param batchSize the number of rows sent to the database per batch
+     * @return The IDs of the entities and the number of rows inserted and updated
+     */
+    public UpsertResult upsertAll(Iterable<T> entities, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1 but was " + batchSize);
+        }
+        List<T> allEntities = new ArrayList<>();
+        List<T> newEntities = new ArrayList<>();
+        List<T> identifiedEntities = new ArrayList<>();
+        for (T entity : entities) {
+            allEntities.add(entity);
+            (Objects.isNull(findIdByAnnotation(entity)) ? newEntities : identifiedEntities).add(entity);
+        }
+        List<Long> identifiedIds = identifiedEntities.stream().map(this::findIdByAnnotation).toList();
+        Set<Long> existingIds = new HashSet<>(queryIds(FIND_EXISTING_IDS_SQL.formatted(getTableName()), identifiedIds));
+        if (!identifiedEntities.isEmpty()) {
+            try {
+                merge(getSqlByAnnotation(CrudOperation.UPSERT, this::getUpsertSql), identifiedEntities, batchSize, this::mapForUpsert);
+                identifiedEntities.forEach(this::updated);
+            } finally {
+                identifiedEntities.forEach(this::invalidate);
+            }
+        }
+        if (!newEntities.isEmpty()) {
+            saveAll(newEntities, batchSize, false);
+        }
+        int updated = (int) identifiedIds.stream().filter(existingIds::contains).count();
+        return new UpsertResult(allEntities.stream().map(this::findIdByAnnotation).toList(), allEntities.size() - updated, updated);
+    }
+
+    /**
+     * Writes the entities with one batch of the statement per batchSize entities, measured as an UPSERT.
+     * @return The number of rows written
+     */
+    long merge(String sql, List<T> entities, int batchSize, EntityBinder<T> entityBinder) {
+        try {
+            return execute(CrudOperation.UPSERT, written -> 0, written -> written, statementCache -> {
+                PreparedStatement preparedStatement = statementCache.prepare(sql);
+                long written = 0;
+                for (int from = 0; from < entities.size(); from += batchSize) {
+                    for (T entity : entities.subList(from, Math.min(from + batchSize, entities.size()))) {
+                        entityBinder.bind(entity, preparedStatement);
+                        preparedStatement.addBatch();
+                    }
+                    written += sum(preparedStatement.executeBatch());
+                }
+                return written;
+            });
+        } catch (SQLException e) {
+            throw new DataException("Unable to upsert entities in batch", e);
+        }
+    }
+
+    @FunctionalInterface
+    interface EntityBinder<T> {
+        void bind(T entity, PreparedStatement preparedStatement) throws SQLException;
+    }
+
     /**
      * @param id of the user to find
      * @return the person if found else null
      */
     public Optional<T> findByID(Long id) {
+        EntityCache<T> cache = entityCache;
+        if (Objects.nonNull(cache)) {
+            T cached = cache.get(id);
+            if (Objects.nonNull(cached)) {
+                return Optional.of(copyOf(cached));
+            }
+        }
+        long generation = entityCacheGeneration();
         T entity = null;
         try {
-            findByIDPreparedStatement.setLong(1, id);
-            ResultSet resultSet = findByIDPreparedStatement.executeQuery();
-            while(resultSet.next()){
-                entity = extractEntityFromResultSet(resultSet);
-            }
+            entity = execute(CrudOperation.FIND_BY_ID, found -> Objects.isNull(found) ? 0 : 1, found -> 0, statementCache -> {
+                String sql = getSqlByAnnotation(CrudOperation.FIND_BY_ID, this::getFindByIDSql);
+                PreparedStatement findByIDPreparedStatement = statementCache.prepare(sql);
+                findByIDPreparedStatement.setLong(1, id);
+                try (ResultSet resultSet = findByIDPreparedStatement.executeQuery()) {
+                    ResultExtractionEvent event = new ResultExtractionEvent();
+                    event.begin();
+                    T found = entityReader(sql, resultSet).readNext();
+                    commit(event, CrudOperation.FIND_BY_ID, sql, Objects.isNull(found) ? 0 : 1);
+                    return found;
+                }
+            });
         } catch (SQLException e) {
             e.printStackTrace();
         }
+        if (Objects.nonNull(cache) && Objects.nonNull(entity)) {
+            T copy = copyOf(entity);
+            synchronized (entityCacheLock) {
+                // An invalidation since the query started may have been for a write the query did not see.
+                if (entityCacheGeneration == generation) {
+                    cache.put(id, copy);
+                }
+            }
+        }
         return Optional.ofNullable(entity);
     }
 
+    /**
+     * Finds many entities with one query per {@link #DEFAULT_ID_CHUNK_SIZE} IDs instead of one findByID per ID.
+     * @param ids the IDs of the entities to find
+     * @return The entities found, in the order of their IDs in the request. IDs without an entity are skipped.
+     */
+    public List<T> findAllByIds(Collection<Long> ids) {
+        return new ArrayList<>(findAllByIdsAsMap(ids).values());
+    }
+
+    /**
+     * @param ids the IDs of the entities to find
+     * @return The entities found by their IDs, iterating in the order of the request
+     */
+    public Map<Long, T> findAllByIdsAsMap(Collection<Long> ids) {
+        return findAllByIdsAsMap(ids, DEFAULT_ID_CHUNK_SIZE);
+    }
+
+    /**
+     * Binds the IDs as an array parameter of the FIND_BY_IDS statement, chunkSize IDs at a time,
+     * so the same prepared statement serves every chunk however many IDs are requested.
+     */
+    Map<Long, T> findAllByIdsAsMap(Collection<Long> ids, int chunkSize) {
+        Map<Long, T> entitiesById = new LinkedHashMap<>();
+        ids.forEach(id -> entitiesById.put(id, null));
+        String sql = getSqlByAnnotation(CrudOperation.FIND_BY_IDS, this::getFindByIdsSql);
+        for (Long[] chunk : chunk(entitiesById.keySet(), chunkSize)) {
+            for (T entity : query(CrudOperation.FIND_BY_IDS, sql, ps -> ps.setArray(1, ps.getConnection().createArrayOf("BIGINT", chunk)))) {
+                entitiesById.put(findIdByAnnotation(entity), entity);
+            }
+        }
+        entitiesById.values().removeIf(Objects::isNull);
+        return entitiesById;
+    }
+
     /**
      * @return Returns all the entities in the database.
      */
     public List<T> findAll() {
         List<T> entities = new ArrayList<>();
-        try (PreparedStatement ps = connection.prepareStatement(getSqlByAnnotation(CrudOperation.FIND_ALL, this::getFindAllSql),
-                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)){
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                entities.add(extractEntityFromResultSet(rs));
-            }
+        try {
+            execute(CrudOperation.FIND_ALL, List::size, found -> 0, statementCache -> {
+                String sql = getSqlByAnnotation(CrudOperation.FIND_ALL, this::getFindAllSql);
+                PreparedStatement ps = statementCache.prepare(sql);
+                try (ResultSet rs = ps.executeQuery()) {
+                    entities.addAll(readAll(CrudOperation.FIND_ALL, sql, rs));
+                }
+                return entities;
+            });
         } catch (SQLException e) {
             e.printStackTrace();
         }
         return entities;
     }
+
+    /**
+     * Streams all entities with {@link #DEFAULT_FETCH_SIZE} rows per fetch.
+     * @see #streamAll(int)
+     */
+    public Stream<T> streamAll() {
+        return streamAll(DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Streams all entities over a forward-only, read-only cursor. Entities are read lazily as the
+     * stream is consumed, so memory use does not grow with the size of the table. The stream holds
+     * a statement (and, for a DataSource backed repository, a pooled connection) until it is closed,
+     * so it must be used in a try-with-resources block.
+     * @param fetchSize the number of rows the driver fetches per round trip
+     * @return A lazily populated stream of all entities
+     */
+    public Stream<T> streamAll(int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("Fetch size must be at least 1 but was " + fetchSize);
+        }
+        return stream(CrudOperation.STREAM_ALL, getSqlByAnnotation(CrudOperation.STREAM_ALL, this::getStreamAllSql), fetchSize, preparedStatement -> {});
+    }
+
+    /**
+     * Runs a query on a cached statement and reads all entities it returns.
+     * @param operation the operation the query is measured as
+     */
+    List<T> query(CrudOperation operation, String sql, ParameterBinder parameterBinder) {
+        try {
+            return execute(operation, List::size, found -> 0, statementCache -> {
+                PreparedStatement ps = statementCache.prepare(sql);
+                parameterBinder.bind(ps);
+                try (ResultSet rs = ps.executeQuery()) {
+                    return readAll(operation, sql, rs);
+                }
+            });
+        } catch (SQLException e) {
+            throw new DataException("Unable to run query", e);
+        }
+    }
+
+    /**
+     * Runs a query on a cached statement and reads the number in the first column of its first row.
+     * @param operation the operation the query is measured as
+     */
+    long queryForLong(CrudOperation operation, String sql, ParameterBinder parameterBinder) {
+        return queryForResult(operation, sql, parameterBinder, rs -> rs.next() ? rs.getLong(1) : 0L, value -> 1);
+    }
+
+    /**
+     * Runs a query on a cached statement and reads its result set with the extractor.
+     * @param operation the operation the query is measured as
+     * @param rowsRead the number of rows read, computed from the result
+     */
+    <R> R queryForResult(CrudOperation operation, String sql, ParameterBinder parameterBinder,
+                         ResultExtractor<R> resultExtractor, ToLongFunction<R> rowsRead) {
+        try {
+            return execute(operation, rowsRead, result -> 0, statementCache -> {
+                PreparedStatement ps = statementCache.prepare(sql);
+                parameterBinder.bind(ps);
+                try (ResultSet rs = ps.executeQuery()) {
+                    return resultExtractor.extract(rs);
+                }
+            });
+        } catch (SQLException e) {
+            throw new DataException("Unable to run query", e);
+        }
+    }
+
+    @FunctionalInterface
+    interface ResultExtractor<R> {
+        R extract(ResultSet resultSet) throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface ParameterBinder {
+        void bind(PreparedStatement preparedStatement) throws SQLException;
+    }
+
+    /**
+     * Runs the query on a dedicated forward-only statement and streams the entities read from it.
+     * The stream is measured as the operation when it is closed.
+     */
+    Stream<T> stream(CrudOperation operation, String sql, int fetchSize, ParameterBinder parameterBinder) {
+        OperationMetrics operationMetrics = metrics.operation(operation);
+        long startTime = System.nanoTime();
+        Connection streamConnection = null;
+        PreparedStatement preparedStatement = null;
+        ResultSet resultSet = null;
+        EntityReader<T> reader;
+        try {
+            streamConnection = connectionSource.borrow();
+            preparedStatement = streamConnection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            if (SlowQueryLog.isTracing()) {
+                preparedStatement = SlowQueryLog.trace(preparedStatement, sql);
+            }
+            preparedStatement.setFetchSize(fetchSize);
+            parameterBinder.bind(preparedStatement);
+            resultSet = preparedStatement.executeQuery();
+            reader = entityReader(sql, resultSet);
+        } catch (SQLException e) {
+            operationMetrics.recordError(startTime);
+            closeStream(streamConnection, preparedStatement, resultSet);
+            throw new DataException("Unable to open stream", e);
+        }
+        EntityReader<T> streamReader = reader;
+        long[] rowsRead = new long[1];
+        boolean[] failed = new boolean[1];
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    T entity = streamReader.readNext();
+                    if (entity == null) {
+                        return false;
+                    }
+                    rowsRead[0]++;
+                    action.accept(entity);
+                    return true;
+                } catch (SQLException e) {
+                    failed[0] = true;
+                    throw new DataException("Unable to read the next entity from the stream", e);
+                }
+            }
+        };
+        Connection connectionToRelease = streamConnection;
+        PreparedStatement statementToClose = preparedStatement;
+        ResultSet resultSetToClose = resultSet;
+        return StreamSupport.stream(spliterator, false)
+                .onClose(() -> {
+                    if (failed[0]) {
+                        operationMetrics.recordError(startTime);
+                    } else {
+                        operationMetrics.recordSuccess(startTime, rowsRead[0], 0);
+                    }
+                    closeStream(connectionToRelease, statementToClose, resultSetToClose);
+                });
+    }
+
+    private List<T> readAll(CrudOperation operation, String sql, ResultSet resultSet) throws SQLException {
+        ResultExtractionEvent event = new ResultExtractionEvent();
+        event.begin();
+        List<T> entities = new ArrayList<>();
+        EntityReader<T> reader = entityReader(sql, resultSet);
+        T entity;
+        while ((entity = reader.readNext()) != null) {
+            entities.add(entity);
+        }
+        commit(event, operation, sql, entities.size());
+        return entities;
+    }
+
+    private void commit(ResultExtractionEvent event, CrudOperation operation, String sql, long entities) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.repository = getClass().getSimpleName();
+            event.operation = operation.name();
+            event.sql = sql;
+            event.entities = entities;
+            event.commit();
+        }
+    }
+
+    private EntityReader<T> entityReader(String sql, ResultSet resultSet) throws SQLException {
+        return new EntityReader<>(rowMapper(sql, resultSet), resultSet);
+    }
+
+    /**
+     * Repositories can override this to compile a mapping plan once per query, e.g. with
+     * the column indexes resolved from the result set's metadata. By default the rows are
+     * mapped by {@link #extractEntityFromResultSet(ResultSet)}, {@link #belongsTo(Object, ResultSet)}
+     * and {@link #mergeRow(Object, ResultSet)}.
+     * @param sql the query the result set belongs to
+     * @param resultSet the result set of the query, before its first row is read
+     */
+    RowMapper<T> rowMapper(String sql, ResultSet resultSet) throws SQLException {
+        return defaultRowMapper;
+    }
+
+    private void closeStream(Connection streamConnection, Statement statement, ResultSet resultSet) {
+        try {
+            if (Objects.nonNull(resultSet)) {
+                resultSet.close();
+            }
+            if (Objects.nonNull(statement)) {
+                statement.close();
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            if (Objects.nonNull(streamConnection)) {
+                try {
+                    connectionSource.release(streamConnection);
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
     /**
      * @return Returns the number of entities in the database
      */
     public long count(){
         long total = 0;
-        try(PreparedStatement ps = connection.prepareStatement(getSqlByAnnotation(CrudOperation.COUNT, this::getCountSql))){
-            ResultSet resultSet = ps.executeQuery();
-            if (resultSet.next()){
-                total = resultSet.getLong(1);
-            }
+        try {
+            total = execute(CrudOperation.COUNT, counted -> 1, counted -> 0, statementCache -> {
+                PreparedStatement ps = statementCache.prepare(getSqlByAnnotation(CrudOperation.COUNT, this::getCountSql));
+                try (ResultSet resultSet = ps.executeQuery()) {
+                    return resultSet.next() ? resultSet.getLong(1) : 0L;
+                }
+            });
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -113,10 +613,15 @@ abstract class CrudRepository<T> {
      * @param entity the entity to be deleted from the database
      */
     public void delete(T entity) {
-        try(PreparedStatement prepareStatement = connection.prepareStatement(getSqlByAnnotation(CrudOperation.DELETE_ONE, this::getDeleteSql))){
-            prepareStatement.setLong(1, findIdByAnnotation(entity));
-            int affectedRecordCount = prepareStatement.executeUpdate();
-            System.out.println("affectedRecordCount: " + affectedRecordCount);
+        Set<Long> staleCacheKeys = staleCacheKeys(List.of(entity));
+        try {
+            execute(CrudOperation.DELETE_ONE, deleted -> 0, deleted -> deleted, statementCache -> {
+                PreparedStatement prepareStatement = statementCache.prepare(getSqlByAnnotation(CrudOperation.DELETE_ONE, this::getDeleteSql));
+                prepareStatement.setLong(1, findIdByAnnotation(entity));
+                return prepareStatement.executeUpdate();
+            });
+            invalidate(staleCacheKeys);
+            deleted(List.of(findIdByAnnotation(entity)));
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -127,83 +632,342 @@ abstract class CrudRepository<T> {
      */
     @SafeVarargs
     public final void delete(T... entities) {
-        try(Statement statement = connection.createStatement()) {
-            String ids = Arrays.stream(entities)
-                    .map(this::findIdByAnnotation)
-                    .map(String::valueOf)
-                    .collect(joining(","));
-            int affectedRecordCount = statement.executeUpdate(getSqlByAnnotation(CrudOperation.DELETE_MANY, this::getDeleteManySql).replace(":ids", ids));
-            System.out.printf("Affected Records Count: %d%n", affectedRecordCount);
+        deleteByIds(Arrays.stream(entities).map(this::findIdByAnnotation).toList());
+    }
+
+    /**
+     * Deletes the entities with one statement per {@link #DEFAULT_ID_CHUNK_SIZE} IDs.
+     * @param ids the IDs of the entities to delete
+     * @return The number of entities deleted
+     */
+    public int deleteByIds(Collection<Long> ids) {
+        return deleteByIds(ids, DEFAULT_ID_CHUNK_SIZE);
+    }
+
+    /**
+     * Binds the IDs as an array parameter of the DELETE_MANY statement, chunkSize IDs at a time,
+     * so the same prepared statement serves every chunk however many IDs are deleted.
+     * As the cached graphs containing the deleted entities are unknown, the whole entity cache is invalidated.
+     */
+    int deleteByIds(Collection<Long> ids, int chunkSize) {
+        List<Long[]> chunks = chunk(ids, chunkSize);
+        if (chunks.isEmpty()) {
+            return 0;
+        }
+        try {
+            return execute(CrudOperation.DELETE_MANY, deleted -> 0, deleted -> deleted, statementCache -> {
+                PreparedStatement preparedStatement = statementCache.prepare(getSqlByAnnotation(CrudOperation.DELETE_MANY, this::getDeleteManySql));
+                int deleted = 0;
+                for (Long[] chunk : chunks) {
+                    preparedStatement.setArray(1, preparedStatement.getConnection().createArrayOf("BIGINT", chunk));
+                    deleted += preparedStatement.executeUpdate();
+                }
+                deleted(ids);
+                return deleted;
+            });
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new DataException("Unable to delete entities by their IDs", e);
+        } finally {
+            invalidateAll();
         }
     }
 
     /**
+     * Reads every non-null value of every column the query returns as an ID, e.g. the IDs of
+     * the rows related to the IDs bound as the query's array parameter, one chunk at a time.
+     */
+    List<Long> queryIds(String sql, Collection<Long> ids) {
+        List<Long> found = new ArrayList<>();
+        for (Long[] chunk : chunk(ids, DEFAULT_ID_CHUNK_SIZE)) {
+            found.addAll(queryIds(sql, ps -> ps.setArray(1, ps.getConnection().createArrayOf("BIGINT", chunk))));
+        }
+        return found;
+    }
+
+    List<Long> queryIds(String sql, ParameterBinder parameterBinder) {
+        try {
+            return connectionSource.withConnection(statementCache -> {
+                PreparedStatement preparedStatement = statementCache.prepare(sql);
+                parameterBinder.bind(preparedStatement);
+                List<Long> found = new ArrayList<>();
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    int columns = resultSet.getMetaData().getColumnCount();
+                    while (resultSet.next()) {
+                        for (int column = 1; column <= columns; column++) {
+                            long id = resultSet.getLong(column);
+                            if (!resultSet.wasNull()) {
+                                found.add(id);
+                            }
+                        }
+                    }
+                }
+                return found;
+            });
+        } catch (SQLException e) {
+            throw new DataException("Unable to run query", e);
+        }
+    }
+
+    private static List<Long[]> chunk(Collection<Long> ids, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1 but was " + chunkSize);
+        }
+        Long[] distinctIds = new LinkedHashSet<>(ids).toArray(Long[]::new);
+        List<Long[]> chunks = new ArrayList<>();
+        for (int from = 0; from < distinctIds.length; from += chunkSize) {
+            chunks.add(Arrays.copyOfRange(distinctIds, from, Math.min(from + chunkSize, distinctIds.length)));
+        }
+        return chunks;
+    }
+
+    /**
+     * Binds the entity's columns with {@link #mapForUpdate(Object, PreparedStatement)} and its ID to the last
+     * parameter of the UPDATE statement.
      * @param entity the user whose details are to be updated in the database.
      */
     public void update(T entity) {
-        try(PreparedStatement preparedStatement = connection.prepareStatement(getSqlByAnnotation(CrudOperation.UPDATE, this::getUpdateSql))) {
-            mapForUpdate(entity, preparedStatement);
-            preparedStatement.setLong(5, findIdByAnnotation(entity));
-            preparedStatement.executeUpdate();
+        try {
+            execute(CrudOperation.UPDATE, updated -> 0, updated -> updated, statementCache -> {
+                PreparedStatement preparedStatement = statementCache.prepare(getSqlByAnnotation(CrudOperation.UPDATE, this::getUpdateSql));
+                mapForUpdate(entity, preparedStatement);
+                preparedStatement.setLong(preparedStatement.getParameterMetaData().getParameterCount(), findIdByAnnotation(entity));
+                return preparedStatement.executeUpdate();
+            });
+            updated(entity);
         } catch (SQLException e) {
             e.printStackTrace();
+        } finally {
+            invalidate(entity);
+        }
+    }
+
+    /**
+     * Deletes the entities with one batch of the DELETE_ONE statement.
+     */
+    void deleteAll(Collection<T> entities) {
+        Set<Long> staleCacheKeys = staleCacheKeys(entities);
+        try {
+            execute(CrudOperation.DELETE_MANY, deleted -> 0, CrudRepository::sum, statementCache -> {
+                PreparedStatement preparedStatement = statementCache.prepare(getSqlByAnnotation(CrudOperation.DELETE_ONE, this::getDeleteSql));
+                for (T entity : entities) {
+                    preparedStatement.setLong(1, findIdByAnnotation(entity));
+                    preparedStatement.addBatch();
+                }
+                return preparedStatement.executeBatch();
+            });
+            invalidate(staleCacheKeys);
+            deleted(entities.stream().map(this::findIdByAnnotation).toList());
+        } catch (SQLException e) {
+            throw new DataException("Unable to delete entities in batch", e);
+        }
+    }
+
+    /**
+     * Sets only the given columns, with one batch for all entities sharing the same changed columns.
+     * The caller has to {@link #invalidate(Object)} the updated entities and report them as {@link #updated(Object)}.
+     * @param columns the names of the changed columns
+     * @param valuesById the new column values, in the order of the columns, by the ID of the entity
+     */
+    void updateColumns(List<String> columns, Map<Long, List<Object>> valuesById) {
+        String sql = "UPDATE %s SET %s WHERE ID=?".formatted(getTableName(),
+                columns.stream().map(column -> column + "=?").collect(joining(", ")));
+        try {
+            execute(CrudOperation.UPDATE, updated -> 0, CrudRepository::sum, statementCache -> {
+                PreparedStatement preparedStatement = statementCache.prepare(sql);
+                for (Map.Entry<Long, List<Object>> entry : valuesById.entrySet()) {
+                    List<Object> values = entry.getValue();
+                    for (int i = 0; i < values.size(); i++) {
+                        preparedStatement.setObject(i + 1, values.get(i));
+                    }
+                    preparedStatement.setLong(values.size() + 1, entry.getKey());
+                    preparedStatement.addBatch();
+                }
+                return preparedStatement.executeBatch();
+            });
+        } catch (SQLException e) {
+            throw new DataException("Unable to update the columns " + columns, e);
+
         }
     }
 
+    /**
+     * @return A new unit of work with its own identity map over this repository
+     */
+    public Session<T> openSession() {
+        return new Session<>(this);
+    }
+
+    /**
+     * @deprecated The schema, including the columns this added, is created by {@link com.bright.peopledb.schema.MigrationRunner}
+     */
+    @Deprecated
     public void alterTable() {
-        try(PreparedStatement preparedStatement = connection.prepareStatement(getSqlByAnnotation(CrudOperation.ALTER, this::getAlterTableSql))) {
-            preparedStatement.execute();
+        try {
+            execute(CrudOperation.ALTER, altered -> 0, altered -> 0, statementCache -> {
+                PreparedStatement preparedStatement = statementCache.prepare(getSqlByAnnotation(CrudOperation.ALTER, this::getAlterTableSql));
+                return preparedStatement.execute();
+            });
         } catch (SQLException e) {
             e.printStackTrace();
         }
     }
 
-    private String getSqlByAnnotation(CrudOperation crudOperation, Supplier<String> sqlGetter){
-        Stream<SQL> multiSqlStream = Arrays.stream(this.getClass().getDeclaredMethods())
-                .filter(m -> m.isAnnotationPresent(MultiSQL.class))
-                .map(m -> m.getAnnotation(MultiSQL.class))
-                .flatMap(msql -> Arrays.stream(msql.value()));
+    /**
+     * Caches the entities found by {@link #findByID(Long)}. Updates and deletes made through this
+     * repository invalidate the cached entities they affect; changes made by other means are only
+     * picked up once the cached entities expire.
+     * @param entityCache the cache to use, or null to stop caching
+     */
+    public void setEntityCache(EntityCache<T> entityCache) {
+        this.entityCache = entityCache;
+    }
+
+    public Optional<EntityCache<T>> getEntityCache() {
+        return Optional.ofNullable(entityCache);
+    }
 
-        Stream<SQL> sqlStream = Arrays.stream(this.getClass().getDeclaredMethods())
-                .filter(m -> m.isAnnotationPresent(SQL.class))
-                .map(m -> m.getAnnotation(SQL.class));
+    /**
+     * @param entityListener notified after every save, update and delete made through this repository
+     */
+    public void addEntityListener(EntityListener<T> entityListener) {
+        entityListeners.add(Objects.requireNonNull(entityListener));
+    }
 
-        return Stream.concat(multiSqlStream, sqlStream)
-                .filter(a -> a.crudOperation().equals(crudOperation))
-                .map(SQL::value)
-                .findFirst().orElseGet(sqlGetter);
+    public void removeEntityListener(EntityListener<T> entityListener) {
+        entityListeners.remove(entityListener);
     }
 
-    private Long findIdByAnnotation(T entity){
-        return Arrays.stream(entity.getClass().getDeclaredFields())
-                .filter(f -> f.isAnnotationPresent(Id.class))
-                .map(f -> {
-                    f.setAccessible(true);  // to get the value of id since it is private
-                    long id = -888L;
-                    try {
-                        id = (long) f.get(entity);
-                    } catch (IllegalAccessException e) {
-                       e.printStackTrace();
-                    }
-                    return id;
-                })
-                .findFirst().orElseThrow(() -> new RuntimeException("No ID annotated field found"));
+    void updated(T entity) {
+        entityListeners.forEach(listener -> listener.updated(entity));
+    }
+
+    void deleted(Collection<Long> ids) {
+        entityListeners.forEach(listener -> listener.deleted(ids));
+    }
+
+    /**
+     * Removes the entity, and the cached entities containing it, from the entity cache.
+     * Must be called after the entity has been written.
+     */
+    void invalidate(T entity) {
+        invalidate(staleCacheKeys(List.of(entity)));
+    }
+
+    /**
+     * @return The keys of the cached entities a write of the entities makes stale, or none if there is no entity cache.
+     * Deletes look them up before the write, as they may be found through the rows being deleted.
+     */
+    private Set<Long> staleCacheKeys(Collection<T> entities) {
+        if (Objects.isNull(entityCache)) {
+            return Set.of();
+        }
+        Set<Long> keys = new HashSet<>();
+        entities.forEach(entity -> keys.addAll(cacheKeysAffectedBy(entity)));
+        return keys;
+    }
+
+    private void invalidate(Set<Long> keys) {
+        EntityCache<T> cache = entityCache;
+        if (Objects.nonNull(cache)) {
+            synchronized (entityCacheLock) {
+                entityCacheGeneration++;
+                keys.forEach(cache::invalidate);
+            }
+        }
+    }
+
+    void invalidateAll() {
+        EntityCache<T> cache = entityCache;
+        if (Objects.nonNull(cache)) {
+            synchronized (entityCacheLock) {
+                entityCacheGeneration++;
+                cache.invalidateAll();
+            }
+        }
+    }
+
+    private long entityCacheGeneration() {
+        synchronized (entityCacheLock) {
+            return entityCacheGeneration;
+        }
+    }
+
+    /**
+     * @return The hit, miss and eviction counters of the repository's prepared statement cache(s)
+     */
+    public StatementCacheStatistics getStatementCacheStatistics() {
+        return connectionSource.getStatistics();
+    }
+
+    /**
+     * Closes the cached prepared statements. The connection or data source itself is left open, as it is owned by the caller.
+     */
+    @Override
+    public void close() {
+        connectionSource.close();
+    }
+
+    ConnectionSource getConnectionSource() {
+        return connectionSource;
+    }
+
+    /**
+     * @return The call counts, error counts, row counts and latencies of the repository's operations,
+     * shared by all repositories of the same class. Entities served by the entity cache are not counted.
+     */
+    public RepositoryMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Runs the function on a connection and records it in the metrics of the operation,
+     * and, if it was slow, in the {@link SlowQueryLog}.
+     * @param rowsRead the number of rows read, computed from the function's result
+     * @param rowsWritten the number of rows written, computed from the function's result
+     */
+    private <R> R execute(CrudOperation operation, ToLongFunction<R> rowsRead, ToLongFunction<R> rowsWritten,
+                          ConnectionSource.SqlFunction<R> function) throws SQLException {
+        OperationMetrics operationMetrics = metrics.operation(operation);
+        SlowQueryLog slowQueryLog = SlowQueryLog.getInstance();
+        long startTime = System.nanoTime();
+        boolean logged = slowQueryLog.begin();
+        try {
+            R result = connectionSource.withConnection(function);
+            long read = rowsRead.applyAsLong(result);
+            long written = rowsWritten.applyAsLong(result);
+            operationMetrics.recordSuccess(startTime, read, written);
+            slowQueryLog.end(logged, getClass().getSimpleName(), operation, startTime, read, written, false);
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            operationMetrics.recordError(startTime);
+            slowQueryLog.end(logged, getClass().getSimpleName(), operation, startTime, 0, 0, true);
+            throw e;
+        }
+    }
+
+    private static long sum(int[] updateCounts) {
+        long sum = 0;
+        for (int updateCount : updateCounts) {
+            sum += Math.max(updateCount, 0);
+        }
+        return sum;
+    }
+
+    private PreparedStatement prepareSaveStatement(StatementCache statementCache) throws SQLException {
+        return statementCache.prepareReturningGeneratedKeys(getSqlByAnnotation(CrudOperation.SAVE, this::getSaveSQL));
+    }
+
+    String getSqlByAnnotation(CrudOperation crudOperation, Supplier<String> sqlGetter){
+        String sql = metadata.getSql(crudOperation);
+        return Objects.nonNull(sql) ? sql : sqlGetter.get();
+    }
+
+    Long findIdByAnnotation(T entity){
+        return IdAccessor.of(entity.getClass()).getId(entity);
     }
 
     private void setIdByAnnotation(Long id, T entity) {
-        Arrays.stream(entity.getClass().getDeclaredFields())
-                .filter(f -> f.isAnnotationPresent(Id.class))
-                .forEach(f -> {
-                    f.setAccessible(true); //Not a good practice though to change visibility of field via reflection
-                    try {
-                        f.set(entity, id);
-                    } catch (IllegalAccessException e) {
-                        System.out.println("Unable to set ID field value");
-                        e.printStackTrace();
-                    }
-                });
+        IdAccessor.of(entity.getClass()).setId(entity, id);
     }
 
 
@@ -216,16 +980,62 @@ abstract class CrudRepository<T> {
      */
     protected String getFindByIDSql(){ throw new IllegalArgumentException(sqlStatementNotDefined);}
 
+    /**
+     * @return A String that represents the SQL statement needed to retrieve several entities
+     * from the database. The SQL statement must contain one array parameter bound to the IDs,
+     * e.g. "WHERE ID = ANY(?)", and rows of the same entity must be adjacent.
+     */
+    protected String getFindByIdsSql(){ throw new IllegalArgumentException(sqlStatementNotDefined);}
+
     protected String getUpdateSql(){ throw new IllegalArgumentException(sqlStatementNotDefined);}
     protected String getAlterTableSql(){ throw new IllegalArgumentException(sqlStatementNotDefined);}
 
+    /**
+     * @return A MERGE statement keyed on ID whose parameters are those of the SAVE statement followed by the ID, e.g.
+     * "MERGE INTO *TABLENAME* (*SAVE COLUMNS*, ID) KEY(ID) VALUES(*SAVE PARAMETERS*, ?)"
+     */
+    protected String getUpsertSql(){ throw new IllegalArgumentException(sqlStatementNotDefined);}
+
+    /**
+     * Binds the entity to the UPSERT statement: by default as {@link #mapForSave(Object, PreparedStatement)}
+     * does, followed by the entity's ID as the last parameter.
+     */
+    protected void mapForUpsert(T entity, PreparedStatement preparedStatement) throws SQLException {
+        mapForSave(entity, preparedStatement);
+        preparedStatement.setLong(preparedStatement.getParameterMetaData().getParameterCount(), findIdByAnnotation(entity));
+    }
+
     protected void postSave(T entity, long id) {}
 
+    /**
+     * @return A copy of the entity that shares no mutable state with it. The entity cache stores
+     * and hands out copies only. Defaults to the entity itself, which is only safe for immutable entities.
+     */
+    protected T copyOf(T entity) { return entity;}
+
+    /**
+     * @return The IDs of the cached entities that are stale once the entity is updated or deleted,
+     * e.g. also the entity's parent when the cached graph of the parent contains it. Only called
+     * when there is an entity cache, and before a delete, so it may look the IDs up in the database.
+     */
+    protected Collection<Long> cacheKeysAffectedBy(T entity) { return List.of(findIdByAnnotation(entity));}
+
+    /**
+     * @return The name of the table the entities are stored in, used for partial updates and conditional deletes
+     */
+    protected String getTableName() { throw new IllegalArgumentException(sqlStatementNotDefined);}
+
+    /**
+     * A {@link Session} compares these values to find the columns that changed since an entity was loaded.
+     * @return The entity's updatable column values as JDBC parameter values, by column name.
+     * An empty map, the default, disables dirty tracking.
+     */
+    protected Map<String, Object> snapshotColumns(T entity) { return Map.of();}
+
     /**
      * @return A SQL statement for deleting multiple entities
-     * from the database. The SQL statement should be like:
-     * "DELETE FROM *TABLENAME* WHERE ID IN (:ids)"
-     * Be sure to include the '(:ids)' named parameter and call it 'ids'
+     * from the database. The SQL statement must contain one array parameter
+     * bound to the IDs, e.g. "DELETE FROM *TABLENAME* WHERE ID = ANY(?)"
      */
     protected String getDeleteManySql() { throw new IllegalArgumentException(sqlStatementNotDefined);}
 
@@ -246,8 +1056,30 @@ abstract class CrudRepository<T> {
      */
     protected String getFindAllSql() { throw new IllegalArgumentException(sqlStatementNotDefined);}
 
+    /**
+     * @return The SQL Statement for streaming all entities in the database. It must not limit the
+     * number of rows, and rows belonging to the same entity must be adjacent. Defaults to {@link #getFindAllSql()}.
+     */
+    protected String getStreamAllSql() { return getFindAllSql();}
+
+    /**
+     * @param resultSet positioned on the first row of an entity
+     * @return The entity read from the current row. The cursor must not be moved;
+     * further rows of the same entity are handed to {@link #mergeRow(Object, ResultSet)}.
+     */
     abstract T extractEntityFromResultSet(ResultSet resultSet) throws SQLException;
 
+    /**
+     * @return Whether the current row continues the entity read from the previous rows.
+     * Entities spanning several joined rows must override this, together with {@link #mergeRow(Object, ResultSet)}.
+     */
+    protected boolean belongsTo(T entity, ResultSet resultSet) throws SQLException { return false;}
+
+    /**
+     * Adds the data of a further row of the same entity, e.g. another child, to the entity.
+     */
+    protected void mergeRow(T entity, ResultSet resultSet) throws SQLException {}
+
     protected abstract void mapForSave(T entity, PreparedStatement preparedStatement) throws SQLException;
     protected abstract void mapForUpdate(T entity, PreparedStatement preparedStatement) throws SQLException;
 
@@ -0,0 +1,30 @@
+package com.bright.peopledb.repository;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+/**
+ * A second-level cache of entities by ID, shared by every caller of a repository's findByID.
+ * Implementations must be thread-safe. The repository only ever stores and hands out copies,
+ * so the cached entities are never seen, or changed, by callers.
+ * @see LruEntityCache
+ */
+public interface EntityCache<T> {
+
+    /**
+     * @return The cached entity, or null if it is not cached or has expired
+     */
+    T get(Long id);
+
+    void put(Long id, T entity);
+
+    void invalidate(Long id);
+
+    void invalidateAll();
+
+    EntityCacheStatistics getStatistics();
+}
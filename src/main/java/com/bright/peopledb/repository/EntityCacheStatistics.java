@@ -0,0 +1,23 @@
+package com.bright.peopledb.repository;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+/**
+ * @param hits the number of entities served from the cache
+ * @param misses the number of entities that had to be loaded from the database
+ * @param evictions the number of entities removed to make room for others
+ * @param expirations the number of entities removed because they outlived their time to live
+ * @param size the number of entities currently cached
+ */
+public record EntityCacheStatistics(long hits, long misses, long evictions, long expirations, int size) {
+
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,34 @@
+package com.bright.peopledb.repository;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import java.util.Collection;
+
+/**
+ * Notified by a repository after it has written entities, e.g. to keep a derived structure such as
+ * {@link PersonIndex} in sync. Listeners run on the writing thread as soon as the statement has run, before
+ * the transaction commits, and are not told about a rollback: a listener that must not see uncommitted
+ * writes only works with a repository writing in autocommit mode, or has to be resynchronised after a rollback.
+ */
+public interface EntityListener<T> {
+
+    /**
+     * @param entity the inserted entity, with its ID set
+     */
+    default void saved(T entity) {}
+
+    /**
+     * @param entity the entity whose row was updated, or upserted
+     */
+    default void updated(T entity) {}
+
+    /**
+     * @param ids the IDs of the deleted entities
+     */
+    default void deleted(Collection<Long> ids) {}
+}
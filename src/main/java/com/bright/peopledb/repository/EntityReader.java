@@ -0,0 +1,48 @@
+package com.bright.peopledb.repository;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Reads entities from a result set in which one entity may span several consecutive rows,
+ * e.g. a person joined with its children. It only ever moves the cursor forward: the row that
+ * starts the next entity is remembered instead of being pushed back with previous(), so it
+ * works on TYPE_FORWARD_ONLY cursors.
+ */
+final class EntityReader<T> {
+
+    private final RowMapper<T> rowMapper;
+    private final ResultSet resultSet;
+    private boolean rowPending;
+
+    EntityReader(RowMapper<T> rowMapper, ResultSet resultSet) {
+        this.rowMapper = rowMapper;
+        this.resultSet = resultSet;
+    }
+
+    /**
+     * @return The next entity, or null once the result set is exhausted
+     */
+    T readNext() throws SQLException {
+        if (!rowPending && !resultSet.next()) {
+            return null;
+        }
+        T entity = rowMapper.extract(resultSet);
+        rowPending = false;
+        while (resultSet.next()) {
+            if (!rowMapper.belongsTo(entity, resultSet)) {
+                rowPending = true;
+                break;
+            }
+            rowMapper.mergeRow(entity, resultSet);
+        }
+        return entity;
+    }
+}
@@ -0,0 +1,79 @@
+package com.bright.peopledb.repository;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The number of people in each group of a GROUP BY query, held in two parallel arrays
+ * instead of one object per group. Groups are in the order of their keys; people
+ * without a value to group by, e.g. without a home address, form the group with the null key.
+ */
+public final class GroupCounts {
+
+    private final String[] keys;
+    private final long[] counts;
+
+    GroupCounts(String[] keys, long[] counts) {
+        this.keys = keys;
+        this.counts = counts;
+    }
+
+    /**
+     * @return The number of groups
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    public String keyAt(int index) {
+        return keys[index];
+    }
+
+    public long countAt(int index) {
+        return counts[index];
+    }
+
+    /**
+     * @return The number of people in the group, or 0 if there is no such group
+     */
+    public long count(String key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (Objects.equals(keys[i], key)) {
+                return counts[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return The number of people in all groups
+     */
+    public long total() {
+        return Arrays.stream(counts).sum();
+    }
+
+    /**
+     * @return The counts by key, in the order of the groups
+     */
+    public Map<String, Long> asMap() {
+        Map<String, Long> countsByKey = new LinkedHashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            countsByKey.put(keys[i], counts[i]);
+        }
+        return countsByKey;
+    }
+
+    @Override
+    public String toString() {
+        return "GroupCounts" + asMap();
+    }
+}
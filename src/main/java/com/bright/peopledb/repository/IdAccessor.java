@@ -0,0 +1,68 @@
+package com.bright.peopledb.repository;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import com.bright.peopledb.annotation.Id;
+import com.bright.peopledb.exception.DataException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+
+/**
+ * Reads and writes the {@link Id} annotated field of an entity class through method handles
+ * that are looked up once per class, so that setAccessible and the field scan are not repeated per entity.
+ */
+final class IdAccessor {
+
+    private static final ClassValue<IdAccessor> REGISTRY = new ClassValue<>() {
+        @Override
+        protected IdAccessor computeValue(Class<?> entityClass) {
+            return new IdAccessor(entityClass);
+        }
+    };
+
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
+    private IdAccessor(Class<?> entityClass) {
+        Field idField = Arrays.stream(entityClass.getDeclaredFields())
+                .filter(f -> f.isAnnotationPresent(Id.class))
+                .findFirst().orElseThrow(() -> new DataException("No ID annotated field found on " + entityClass.getName()));
+        try {
+            idField.setAccessible(true); // the ID fields are private, and final on Address
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            getter = lookup.unreflectGetter(idField).asType(MethodType.methodType(Object.class, Object.class));
+            setter = lookup.unreflectSetter(idField).asType(MethodType.methodType(void.class, Object.class, Object.class));
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new DataException("Unable to access ID field of " + entityClass.getName() + ": " + e);
+        }
+    }
+
+    static IdAccessor of(Class<?> entityClass) {
+        return REGISTRY.get(entityClass);
+    }
+
+    Long getId(Object entity) {
+        try {
+            return (Long) (Object) getter.invokeExact(entity);
+        } catch (Throwable e) {
+            throw new DataException("Unable to get ID field value: " + e);
+        }
+    }
+
+    void setId(Object entity, Long id) {
+        try {
+            setter.invokeExact(entity, (Object) id);
+        } catch (Throwable e) {
+            throw new DataException("Unable to set ID field value: " + e);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.bright.peopledb.repository;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import java.util.Arrays;
+
+/**
+ * A range index from long keys to IDs, held in two parallel primitive arrays sorted by key and then ID,
+ * so a range lookup is two binary searches and a copy, without boxing. Building from unsorted pairs
+ * sorts once; single additions and removals shift the arrays, which suits data that is read far more
+ * often than it is written. Not thread safe.
+ */
+final class LongRangeIndex {
+
+    private long[] keys = new long[16];
+    private long[] ids = new long[16];
+    private int size;
+
+    /**
+     * Replaces the contents with the first size pairs of the arrays, which may be in any order.
+     */
+    void load(long[] unsortedKeys, long[] unsortedIds, int size) {
+        keys = Arrays.copyOf(unsortedKeys, Math.max(size, 16));
+        ids = Arrays.copyOf(unsortedIds, Math.max(size, 16));
+        this.size = size;
+        sort(keys, ids, size);
+    }
+
+    void add(long key, long id) {
+        int position = -(search(key, id) + 1);
+        if (position < 0) {
+            return;
+        }
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(keys, position, keys, position + 1, size - position);
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        keys[position] = key;
+        ids[position] = id;
+        size++;
+    }
+
+    void remove(long key, long id) {
+        int position = search(key, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(keys, position + 1, keys, position, size - position - 1);
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+    }
+
+    /**
+     * @return The IDs of the keys from low to high, both inclusive, in key order
+     */
+    long[] idsBetween(long low, long high) {
+        if (low > high) {
+            return new long[0];
+        }
+        int from = -(search(low, Long.MIN_VALUE) + 1);
+        int to = high == Long.MAX_VALUE ? size : -(search(high + 1, Long.MIN_VALUE) + 1);
+        return Arrays.copyOfRange(ids, from, to);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return The position of the pair, or -(insertion point) - 1 if it is absent
+     */
+    private int search(long key, long id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compare(keys[middle], ids[middle], key, id);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static int compare(long key, long id, long otherKey, long otherId) {
+        int comparison = Long.compare(key, otherKey);
+        return comparison != 0 ? comparison : Long.compare(id, otherId);
+    }
+
+    /**
+     * A bottom-up merge sort of the pairs, as the JDK only sorts a primitive array on its own.
+     */
+    private static void sort(long[] keys, long[] ids, int size) {
+        long[] sourceKeys = keys;
+        long[] sourceIds = ids;
+        long[] targetKeys = new long[size];
+        long[] targetIds = new long[size];
+        for (int width = 1; width < size; width *= 2) {
+            for (int from = 0; from < size; from += 2 * width) {
+                int middle = Math.min(from + width, size);
+                int to = Math.min(from + 2 * width, size);
+                int left = from;
+                int right = middle;
+                for (int target = from; target < to; target++) {
+                    if (left < middle && (right >= to
+                            || compare(sourceKeys[left], sourceIds[left], sourceKeys[right], sourceIds[right]) <= 0)) {
+                        targetKeys[target] = sourceKeys[left];
+                        targetIds[target] = sourceIds[left++];
+                    } else {
+                        targetKeys[target] = sourceKeys[right];
+                        targetIds[target] = sourceIds[right++];
+                    }
+                }
+            }
+            long[] swapKeys = sourceKeys;
+            long[] swapIds = sourceIds;
+            sourceKeys = targetKeys;
+            sourceIds = targetIds;
+            targetKeys = swapKeys;
+            targetIds = swapIds;
+        }
+        if (sourceKeys != keys) {
+            System.arraycopy(sourceKeys, 0, keys, 0, size);
+            System.arraycopy(sourceIds, 0, ids, 0, size);
+        }
+    }
+}
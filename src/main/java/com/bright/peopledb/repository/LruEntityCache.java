@@ -0,0 +1,94 @@
+package com.bright.peopledb.repository;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * An {@link EntityCache} holding at most maxSize entities, evicting the least recently used one
+ * once it is full, and dropping entities that were cached longer than the time to live ago.
+ */
+public final class LruEntityCache<T> implements EntityCache<T> {
+
+    private record Entry<T>(T entity, long expiresAt) {}
+
+    private final int maxSize;
+    private final long timeToLiveNanos;
+    private final LongSupplier nanoClock;
+    private final Map<Long, Entry<T>> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    public LruEntityCache(int maxSize, Duration timeToLive) {
+        this(maxSize, timeToLive, System::nanoTime);
+    }
+
+    LruEntityCache(int maxSize, Duration timeToLive, LongSupplier nanoClock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Entity cache size must be at least 1 but was " + maxSize);
+        }
+        if (timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("Time to live must be positive but was " + timeToLive);
+        }
+        this.maxSize = maxSize;
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry<T>> eldest) {
+                if (size() > LruEntityCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public synchronized T get(Long id) {
+        Entry<T> entry = entries.get(id);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (nanoClock.getAsLong() - entry.expiresAt() >= 0) {
+            entries.remove(id);
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.entity();
+    }
+
+    @Override
+    public synchronized void put(Long id, T entity) {
+        entries.put(id, new Entry<>(entity, nanoClock.getAsLong() + timeToLiveNanos));
+    }
+
+    @Override
+    public synchronized void invalidate(Long id) {
+        entries.remove(id);
+    }
+
+    @Override
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    @Override
+    public synchronized EntityCacheStatistics getStatistics() {
+        return new EntityCacheStatistics(hits, misses, evictions, expirations, entries.size());
+    }
+}
@@ -0,0 +1,79 @@
+package com.bright.peopledb.repository;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import com.bright.peopledb.diagnostics.GraphAssemblyEvent;
+import com.bright.peopledb.model.AssociationLoader;
+import com.bright.peopledb.model.Person;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Loads the children and addresses of all people found by one query as soon as those of any of them are accessed,
+ * with one {@link CrudRepository#findAllByIds(java.util.Collection)} instead of one findByID per person.
+ */
+final class PersonAssociationLoader implements AssociationLoader {
+
+    private final PersonRepository repository;
+    private final List<Person> people;
+    private boolean loaded;
+
+    private PersonAssociationLoader(PersonRepository repository, List<Person> people) {
+        this.repository = repository;
+        this.people = people;
+    }
+
+    /**
+     * Makes the people load their associations lazily, as one batch.
+     * @return The loader shared by the people
+     */
+    static PersonAssociationLoader attach(PersonRepository repository, List<Person> people) {
+        PersonAssociationLoader loader = new PersonAssociationLoader(repository, List.copyOf(people));
+        people.forEach(person -> person.setAssociationLoader(loader));
+        return loader;
+    }
+
+    @Override
+    public void load(Person person) {
+        loadAll();
+    }
+
+    synchronized void loadAll() {
+        if (loaded) {
+            return;
+        }
+        if (people.isEmpty()) {
+            loaded = true;
+            return;
+        }
+        GraphAssemblyEvent event = new GraphAssemblyEvent();
+        event.begin();
+        // the people keep this loader until the query has succeeded, so a failed load is retried on the next access
+        Map<Long, Person> graphs = repository.findAllByIdsAsMap(people.stream().map(Person::getId).toList());
+        loaded = true;
+        people.forEach(person -> person.setAssociationLoader(null));
+        for (Person person : people) {
+            Person graph = graphs.get(person.getId());
+            if (Objects.isNull(graph)) {
+                continue;
+            }
+            person.setHomeAddress(graph.getHomeAddress().orElse(null));
+            person.setBusinessAddress(graph.getBusinessAddress().orElse(null));
+            List.copyOf(graph.getChildren()).forEach(person::addChild);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.kind = "lazy load";
+            event.people = people.size();
+            event.generations = 2;
+            event.commit();
+        }
+    }
+}
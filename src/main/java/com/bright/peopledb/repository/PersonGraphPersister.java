@@ -0,0 +1,101 @@
+package com.bright.peopledb.repository;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import com.bright.peopledb.diagnostics.GraphAssemblyEvent;
+import com.bright.peopledb.exception.DataException;
+import com.bright.peopledb.model.Address;
+import com.bright.peopledb.model.Person;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Saves trees of people level by level instead of recursively.
+ * <p>
+ * The trees are flattened into generations: the people passed in, their children, their
+ * grandchildren and so on. All addresses of all generations are inserted first in one batch,
+ * then each generation is inserted in one batch, after the generation of its parents has been
+ * saved and their generated IDs are known. Saving a family therefore takes one round trip per
+ * generation (and batch) instead of several per person.
+ * <p>
+ * The addresses and the generations are saved on one connection, taken before the addresses are
+ * resolved, like every save of a single person does, so the connection is always taken first.
+ */
+final class PersonGraphPersister {
+
+    private final PersonRepository personRepository;
+    private final AddressResolver addressResolver;
+
+    PersonGraphPersister(PersonRepository personRepository, AddressResolver addressResolver) {
+        this.personRepository = personRepository;
+        this.addressResolver = addressResolver;
+    }
+
+    /**
+     * @return The people passed in, with the IDs of everyone in their trees set
+     */
+    List<Person> persist(Iterable<Person> people, int batchSize) {
+        GraphAssemblyEvent event = new GraphAssemblyEvent();
+        event.begin();
+        List<List<Person>> generations = generations(people);
+        List<Address> addresses = new ArrayList<>();
+        for (List<Person> generation : generations) {
+            for (Person person : generation) {
+                person.getHomeAddress().ifPresent(addresses::add);
+                person.getBusinessAddress().ifPresent(addresses::add);
+            }
+        }
+        try {
+            personRepository.getConnectionSource().withConnection(statementCache -> {
+                if (!addresses.isEmpty()) {
+                    addressResolver.resolveAll(addresses, batchSize);
+                }
+                for (List<Person> generation : generations) {
+                    personRepository.saveAll(generation, batchSize, false);
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new DataException("Unable to save the people with their addresses", e);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.kind = "save";
+            event.people = generations.stream().mapToLong(List::size).sum();
+            event.generations = generations.size();
+            event.commit();
+        }
+        return generations.isEmpty() ? List.of() : generations.get(0);
+    }
+
+    private static List<List<Person>> generations(Iterable<Person> people) {
+        List<List<Person>> generations = new ArrayList<>();
+        Set<Person> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Person> generation = new ArrayList<>();
+        people.forEach(generation::add);
+        while (!generation.isEmpty()) {
+            generations.add(generation);
+            visited.addAll(generation);
+            List<Person> children = new ArrayList<>();
+            for (Person person : generation) {
+                for (Person child : person.getChildren()) {
+                    if (!visited.contains(child)) {
+                        children.add(child);
+                    }
+                }
+            }
+            generation = children;
+        }
+        return generations;
+    }
+}
@@ -0,0 +1,295 @@
+package com.bright.peopledb.repository;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import com.bright.peopledb.model.CrudOperation;
+import com.bright.peopledb.model.Person;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * In-memory secondary indexes over PERSON for read-heavy lookups: a hash index on EMAIL, a sorted
+ * index on LAST_NAME for prefix lookups and a range index on the epoch second of DOB, all mapping to IDs.
+ * <p>
+ * The index is built by one streaming scan of the indexed columns and then kept in sync by listening to the saves, updates and
+ * deletes of its repository. A lookup resolves the IDs in memory and loads the people with one
+ * {@link CrudRepository#findAllByIds(Collection)}. The people loaded are checked against the lookup again,
+ * so a lookup never returns a person who no longer matches it.
+ * <p>
+ * The listeners are told about writes before they commit and never about rollbacks, so the index only stays
+ * complete while the repository writes in autocommit mode. After a rollback, e.g. of a delete, an update or a
+ * {@link Session} flush, and after rows were written by other means, lookups miss the people whose indexed
+ * values are wrong until the index is {@link #rebuild() rebuilt}.
+ */
+public final class PersonIndex implements AutoCloseable {
+
+    static final String SCAN_SQL = """
+    SELECT ID AS PARENT_ID, EMAIL AS PARENT_EMAIL, LAST_NAME AS PARENT_LAST_NAME, DOB AS PARENT_DOB
+    FROM PERSON""";
+
+    private record IndexedPerson(String email, String lastName, Long dateOfBirth) {
+
+        static IndexedPerson of(Person person) {
+            return new IndexedPerson(person.getEmail(), person.getLastName(),
+                    Objects.isNull(person.getDateOfBirth()) ? null : person.getDateOfBirth().toEpochSecond());
+        }
+    }
+
+    private final PersonRepository repository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedPerson> peopleById = new HashMap<>();
+    private final Map<String, Set<Long>> idsByEmail = new HashMap<>();
+    private final NavigableMap<String, Set<Long>> idsByLastName = new TreeMap<>();
+    private final LongRangeIndex idsByDateOfBirth = new LongRangeIndex();
+    private final List<Runnable> changesWhileBuilding = new ArrayList<>();
+    private boolean building = true;
+
+    private final EntityListener<Person> listener = new EntityListener<>() {
+        @Override
+        public void saved(Person person) {
+            apply(() -> put(person.getId(), IndexedPerson.of(person)));
+        }
+
+        @Override
+        public void updated(Person person) {
+            apply(() -> put(person.getId(), IndexedPerson.of(person)));
+        }
+
+        @Override
+        public void deleted(Collection<Long> ids) {
+            List<Long> deletedIds = List.copyOf(ids);
+            apply(() -> deletedIds.forEach(PersonIndex.this::remove));
+        }
+    };
+
+    private PersonIndex(PersonRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Builds the index with one scan of PERSON and starts keeping it in sync with the repository.
+     * Changes made through the repository during the scan are applied once it has finished.
+     */
+    public static PersonIndex build(PersonRepository repository) {
+        PersonIndex index = new PersonIndex(repository);
+        repository.addEntityListener(index.listener);
+        try {
+            index.install(index.scan());
+        } catch (RuntimeException e) {
+            repository.removeEntityListener(index.listener);
+            throw e;
+        }
+        return index;
+    }
+
+    /**
+     * Replaces the index with one built by a new scan of PERSON, e.g. after a rollback of a transaction
+     * that wrote people through the repository. Lookups use the old index until the scan has finished,
+     * and changes made through the repository during the scan are applied once it has.
+     */
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            building = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Map<Long, IndexedPerson> scanned;
+        try {
+            scanned = scan();
+        } catch (RuntimeException e) {
+            install(null);
+            throw e;
+        }
+        install(scanned);
+    }
+
+    /**
+     * @return The people with the email
+     */
+    public List<Person> findByEmail(String email) {
+        return find(() -> idsByEmail.getOrDefault(email, Set.of()), person -> Objects.equals(person.getEmail(), email));
+    }
+
+    /**
+     * @return The people whose last name starts with the prefix, case sensitively, in last name order
+     */
+    public List<Person> findByLastNameStartingWith(String prefix) {
+        return find(() -> {
+            List<Long> ids = new ArrayList<>();
+            idsByLastName.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values().forEach(ids::addAll);
+            return ids;
+        }, person -> Objects.nonNull(person.getLastName()) && person.getLastName().startsWith(prefix));
+    }
+
+    /**
+     * @return The people born from the one instant to the other, both inclusive, in date of birth order
+     */
+    public List<Person> findByDateOfBirthBetween(ZonedDateTime from, ZonedDateTime to) {
+        long fromSecond = from.toEpochSecond();
+        long toSecond = to.toEpochSecond();
+        return find(() -> Arrays.stream(idsByDateOfBirth.idsBetween(fromSecond, toSecond)).boxed().toList(), person -> {
+            if (Objects.isNull(person.getDateOfBirth())) {
+                return false;
+            }
+            long second = person.getDateOfBirth().toEpochSecond();
+            return second >= fromSecond && second <= toSecond;
+        });
+    }
+
+    /**
+     * @return The number of people indexed
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return peopleById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stops keeping the index in sync with the repository.
+     */
+    @Override
+    public void close() {
+        repository.removeEntityListener(listener);
+    }
+
+    private List<Person> find(Supplier<Collection<Long>> idLookup, Predicate<Person> stillMatches) {
+        Collection<Long> ids;
+        lock.readLock().lock();
+        try {
+            ids = new LinkedHashSet<>(idLookup.get());
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return repository.findAllByIds(ids).stream().filter(stillMatches).toList();
+    }
+
+    /**
+     * Reads only the indexed columns, without the addresses and children of the people.
+     */
+    private Map<Long, IndexedPerson> scan() {
+        Map<Long, IndexedPerson> scanned = new HashMap<>();
+        try (Stream<Person> people = repository.stream(CrudOperation.QUERY, SCAN_SQL, CrudRepository.DEFAULT_FETCH_SIZE, ps -> {})) {
+            people.forEach(person -> scanned.put(person.getId(), IndexedPerson.of(person)));
+        }
+        return scanned;
+    }
+
+    /**
+     * Replaces the indexes with the scanned people, or keeps them if the scan failed,
+     * then applies the changes made during the scan.
+     */
+    private void install(Map<Long, IndexedPerson> scanned) {
+        lock.writeLock().lock();
+        try {
+            if (Objects.nonNull(scanned)) {
+                load(scanned);
+            }
+            changesWhileBuilding.forEach(Runnable::run);
+            changesWhileBuilding.clear();
+            building = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void load(Map<Long, IndexedPerson> scanned) {
+        peopleById.clear();
+        idsByEmail.clear();
+        idsByLastName.clear();
+        long[] dates = new long[scanned.size()];
+        long[] ids = new long[scanned.size()];
+        int dated = 0;
+        for (Map.Entry<Long, IndexedPerson> entry : scanned.entrySet()) {
+            IndexedPerson person = entry.getValue();
+            peopleById.put(entry.getKey(), person);
+            addToHashIndexes(entry.getKey(), person);
+            if (Objects.nonNull(person.dateOfBirth())) {
+                dates[dated] = person.dateOfBirth();
+                ids[dated++] = entry.getKey();
+            }
+        }
+        idsByDateOfBirth.load(dates, ids, dated);
+    }
+
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (building) {
+                changesWhileBuilding.add(change);
+            } else {
+                change.run();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Long id, IndexedPerson person) {
+        remove(id);
+        peopleById.put(id, person);
+        addToHashIndexes(id, person);
+        if (Objects.nonNull(person.dateOfBirth())) {
+            idsByDateOfBirth.add(person.dateOfBirth(), id);
+        }
+    }
+
+    private void remove(Long id) {
+        IndexedPerson person = peopleById.remove(id);
+        if (Objects.isNull(person)) {
+            return;
+        }
+        removeFrom(idsByEmail, person.email(), id);
+        removeFrom(idsByLastName, person.lastName(), id);
+        if (Objects.nonNull(person.dateOfBirth())) {
+            idsByDateOfBirth.remove(person.dateOfBirth(), id);
+        }
+    }
+
+    private void addToHashIndexes(Long id, IndexedPerson person) {
+        if (Objects.nonNull(person.email())) {
+            idsByEmail.computeIfAbsent(person.email(), email -> new LinkedHashSet<>()).add(id);
+        }
+        if (Objects.nonNull(person.lastName())) {
+            idsByLastName.computeIfAbsent(person.lastName(), lastName -> new LinkedHashSet<>()).add(id);
+        }
+    }
+
+    private static void removeFrom(Map<String, Set<Long>> index, String key, Long id) {
+        if (Objects.isNull(key)) {
+            return;
+        }
+        Set<Long> ids = index.get(key);
+        if (Objects.nonNull(ids) && ids.remove(id) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.bright.peopledb.repository;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import com.bright.peopledb.enums.Region;
+import com.bright.peopledb.model.Address;
+import com.bright.peopledb.model.Person;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * How the columns of one PersonRepository query map onto people and addresses, compiled once
+ * from the column labels of the query's ResultSetMetaData. The column indexes are fixed at compile time and read with
+ * typed getters, so extracting a row neither looks up column labels nor boxes the column values.
+ * A missing column has index 0 and reads as null; a missing group of columns (e.g. no CHILD_
+ * columns in FIND_ALL) is skipped entirely.
+ */
+final class PersonMappingPlan implements RowMapper<Person> {
+
+    private static final ZoneId UTC = ZoneId.of("+0");
+
+    private record PersonColumns(int id, int firstName, int lastName, int dob, int salary, int email) {}
+
+    private record AddressColumns(int id, int streetAddress, int address2, int city, int state,
+                                  int postcode, int county, int region, int country) {}
+
+    private final PersonColumns parent;
+    private final PersonColumns child;
+    private final AddressColumns home;
+    private final AddressColumns business;
+
+    private PersonMappingPlan(PersonColumns parent, PersonColumns child, AddressColumns home, AddressColumns business) {
+        this.parent = parent;
+        this.child = child;
+        this.home = home;
+        this.business = business;
+    }
+
+    /**
+     * @return The upper case labels of the columns, in order, which is all a plan depends on
+     */
+    static List<String> columnLabels(ResultSetMetaData metaData) throws SQLException {
+        List<String> columnLabels = new ArrayList<>(metaData.getColumnCount());
+        for (int colIdx = 1; colIdx <= metaData.getColumnCount(); colIdx++) {
+            columnLabels.add(metaData.getColumnLabel(colIdx).toUpperCase());
+        }
+        return columnLabels;
+    }
+
+    static PersonMappingPlan compile(List<String> columnLabels) {
+        Map<String, Integer> indexByLabel = new HashMap<>();
+        for (int colIdx = 1; colIdx <= columnLabels.size(); colIdx++) {
+            indexByLabel.putIfAbsent(columnLabels.get(colIdx - 1), colIdx);
+        }
+        PersonColumns parent = personColumns(indexByLabel, "PARENT_");
+        if (parent == null) {
+            throw new IllegalArgumentException("Person queries must select PARENT_ID but selected " + columnLabels);
+        }
+        return new PersonMappingPlan(parent, personColumns(indexByLabel, "CHILD_"),
+                addressColumns(indexByLabel, "HOME_"), addressColumns(indexByLabel, "BUSINESS_"));
+    }
+
+    @Override
+    public Person extract(ResultSet rs) throws SQLException {
+        Person person = readPerson(rs, parent);
+        if (home != null) {
+            person.setHomeAddress(readAddress(rs, home));
+        }
+        if (business != null) {
+            person.setBusinessAddress(readAddress(rs, business));
+        }
+        mergeRow(person, rs);
+        return person;
+    }
+
+    /**
+     * The joined queries return one row per child, so consecutive rows with the same PARENT_ID are the same person.
+     */
+    @Override
+    public boolean belongsTo(Person person, ResultSet rs) throws SQLException {
+        return person.getId() == rs.getLong(parent.id());
+    }
+
+    @Override
+    public void mergeRow(Person person, ResultSet rs) throws SQLException {
+        if (child != null) {
+            Person foundChild = readPerson(rs, child);
+            if (foundChild != null) {
+                person.addChild(foundChild);
+            }
+        }
+    }
+
+    private static Person readPerson(ResultSet rs, PersonColumns columns) throws SQLException {
+        long id = rs.getLong(columns.id());
+        if (rs.wasNull()) {
+            return null;
+        }
+        Timestamp dob = columns.dob() == 0 ? null : rs.getTimestamp(columns.dob());
+        Person person = new Person(id, getString(rs, columns.firstName()), getString(rs, columns.lastName()),
+                dob == null ? null : ZonedDateTime.of(dob.toLocalDateTime(), UTC),
+                columns.salary() == 0 ? null : rs.getBigDecimal(columns.salary()));
+        if (columns.email() != 0) {
+            person.setEmail(rs.getString(columns.email()));
+        }
+        return person;
+    }
+
+    private static Address readAddress(ResultSet rs, AddressColumns columns) throws SQLException {
+        long id = rs.getLong(columns.id());
+        if (rs.wasNull()) {
+            return null;
+        }
+        String region = getString(rs, columns.region());
+        return new Address(id, getString(rs, columns.streetAddress()), getString(rs, columns.address2()),
+                getString(rs, columns.city()), getString(rs, columns.state()), getString(rs, columns.postcode()),
+                getString(rs, columns.country()), getString(rs, columns.county()),
+                region == null ? null : Region.valueOf(region.toUpperCase()));
+    }
+
+    private static String getString(ResultSet rs, int columnIndex) throws SQLException {
+        return columnIndex == 0 ? null : rs.getString(columnIndex);
+    }
+
+    private static PersonColumns personColumns(Map<String, Integer> indexByLabel, String aliasPrefix) {
+        int id = indexByLabel.getOrDefault(aliasPrefix + "ID", 0);
+        if (id == 0) {
+            return null;
+        }
+        return new PersonColumns(id,
+                indexByLabel.getOrDefault(aliasPrefix + "FIRST_NAME", 0),
+                indexByLabel.getOrDefault(aliasPrefix + "LAST_NAME", 0),
+                indexByLabel.getOrDefault(aliasPrefix + "DOB", 0),
+                indexByLabel.getOrDefault(aliasPrefix + "SALARY", 0),
+                indexByLabel.getOrDefault(aliasPrefix + "EMAIL", 0));
+    }
+
+    private static AddressColumns addressColumns(Map<String, Integer> indexByLabel, String aliasPrefix) {
+        int id = indexByLabel.getOrDefault(aliasPrefix + "ID", 0);
+        if (id == 0) {
+            return null;
+        }
+        return new AddressColumns(id,
+                indexByLabel.getOrDefault(aliasPrefix + "STREET_ADDRESS", 0),
+                indexByLabel.getOrDefault(aliasPrefix + "ADDRESS2", 0),
+                indexByLabel.getOrDefault(aliasPrefix + "CITY", 0),
+                indexByLabel.getOrDefault(aliasPrefix + "STATE", 0),
+                indexByLabel.getOrDefault(aliasPrefix + "POSTCODE", 0),
+                indexByLabel.getOrDefault(aliasPrefix + "COUNTY", 0),
+                indexByLabel.getOrDefault(aliasPrefix + "REGION", 0),
+                indexByLabel.getOrDefault(aliasPrefix + "COUNTRY", 0));
+    }
+}
@@ -8,20 +8,37 @@ package com.bright.peopledb.repository;
 
 
 import com.bright.peopledb.annotation.SQL;
-import com.bright.peopledb.enums.Region;
+import com.bright.peopledb.enums.FetchMode;
+import com.bright.peopledb.enums.PersonGrouping;
+import com.bright.peopledb.exception.DataException;
 import com.bright.peopledb.model.Address;
 import com.bright.peopledb.model.CrudOperation;
+import com.bright.peopledb.model.Page;
 import com.bright.peopledb.model.Person;
+import com.bright.peopledb.model.UpsertResult;
+import com.bright.peopledb.query.CompiledQuery;
+import com.bright.peopledb.query.PersonQuery;
 import org.jetbrains.annotations.NotNull;
 
-import java.math.BigDecimal;
+import javax.sql.DataSource;
 import java.sql.*;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 public class PersonRepository extends CrudRepository<Person> {
 
@@ -29,6 +46,15 @@ public class PersonRepository extends CrudRepository<Person> {
     INSERT INTO PERSON
     (FIRST_NAME, LAST_NAME, DOB, SALARY, EMAIL, HOME_ADDRESS, BUSINESS_ADDRESS, PARENT_ID)
     VALUES(?, ?, ?, ?, ?, ?, ?, ?)""";
+    public static final String UPSERT_PERSON_SQL = """
+    MERGE INTO PERSON
+    (FIRST_NAME, LAST_NAME, DOB, SALARY, EMAIL, HOME_ADDRESS, BUSINESS_ADDRESS, PARENT_ID, ID)
+    KEY(ID) VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+    public static final String UPSERT_PERSON_BY_EMAIL_SQL = """
+    MERGE INTO PERSON
+    (FIRST_NAME, LAST_NAME, DOB, SALARY, EMAIL, HOME_ADDRESS, BUSINESS_ADDRESS, PARENT_ID)
+    KEY(EMAIL) VALUES(?, ?, ?, ?, ?, ?, ?, ?)""";
+    public static final String FIND_IDS_BY_EMAIL_SQL = "SELECT ID, EMAIL FROM PERSON WHERE EMAIL = ANY(?) ORDER BY ID";
     public static final String FIND_BY_ID_SQL = """
     SELECT PARENT.ID AS PARENT_ID, PARENT.FIRST_NAME AS PARENT_FIRST_NAME, PARENT.LAST_NAME AS PARENT_LAST_NAME, PARENT.DOB AS PARENT_DOB, PARENT.SALARY AS PARENT_SALARY, PARENT.EMAIL AS PARENT_EMAIL,
     CHILD.ID AS CHILD_ID, CHILD.FIRST_NAME AS CHILD_FIRST_NAME, CHILD.LAST_NAME AS CHILD_LAST_NAME, CHILD.DOB AS CHILD_DOB, CHILD.SALARY AS CHILD_SALARY, CHILD.EMAIL AS CHILD_EMAIL,
@@ -39,24 +65,131 @@ public class PersonRepository extends CrudRepository<Person> {
     LEFT OUTER JOIN ADDRESSES AS HOME ON PARENT.HOME_ADDRESS = HOME.ID
     LEFT OUTER JOIN ADDRESSES AS BUSINESS ON PARENT.BUSINESS_ADDRESS = BUSINESS.ID
     WHERE PARENT.ID = ?""";
+    public static final String FIND_BY_IDS_SQL = """
+    SELECT PARENT.ID AS PARENT_ID, PARENT.FIRST_NAME AS PARENT_FIRST_NAME, PARENT.LAST_NAME AS PARENT_LAST_NAME, PARENT.DOB AS PARENT_DOB, PARENT.SALARY AS PARENT_SALARY, PARENT.EMAIL AS PARENT_EMAIL,
+    CHILD.ID AS CHILD_ID, CHILD.FIRST_NAME AS CHILD_FIRST_NAME, CHILD.LAST_NAME AS CHILD_LAST_NAME, CHILD.DOB AS CHILD_DOB, CHILD.SALARY AS CHILD_SALARY, CHILD.EMAIL AS CHILD_EMAIL,
+    HOME.ID AS HOME_ID, HOME.STREET_ADDRESS AS HOME_STREET_ADDRESS, HOME.ADDRESS2 AS HOME_ADDRESS2, HOME.CITY AS HOME_CITY, HOME.STATE AS HOME_STATE, HOME.POSTCODE AS HOME_POSTCODE, HOME.COUNTY AS HOME_COUNTY, HOME.REGION AS HOME_REGION, HOME.COUNTRY AS HOME_COUNTRY,
+    BUSINESS.ID AS BUSINESS_ID, BUSINESS.STREET_ADDRESS AS BUSINESS_STREET_ADDRESS, BUSINESS.ADDRESS2 AS BUSINESS_ADDRESS2, BUSINESS.CITY AS BUSINESS_CITY, BUSINESS.STATE AS BUSINESS_STATE, BUSINESS.POSTCODE AS BUSINESS_POSTCODE, BUSINESS.COUNTY AS BUSINESS_COUNTY, BUSINESS.REGION AS BUSINESS_REGION, BUSINESS.COUNTRY AS BUSINESS_COUNTRY
+    FROM PERSON AS PARENT
+    LEFT OUTER JOIN PERSON AS CHILD ON PARENT.ID = CHILD.PARENT_ID
+    LEFT OUTER JOIN ADDRESSES AS HOME ON PARENT.HOME_ADDRESS = HOME.ID
+    LEFT OUTER JOIN ADDRESSES AS BUSINESS ON PARENT.BUSINESS_ADDRESS = BUSINESS.ID
+    WHERE PARENT.ID = ANY(?)
+    ORDER BY PARENT.ID""";
     public static final String GET_COUNT_SQL = "SELECT COUNT(*) FROM PERSON";
     public static final String FIND_ALL_SQL = """
     SELECT PARENT.ID AS PARENT_ID, PARENT.FIRST_NAME AS PARENT_FIRST_NAME, PARENT.LAST_NAME AS PARENT_LAST_NAME, PARENT.DOB AS PARENT_DOB, PARENT.SALARY AS PARENT_SALARY, PARENT.EMAIL AS PARENT_EMAIL
     FROM PERSON AS PARENT
     FETCH FIRST 100 ROWS ONLY
     """;
+    public static final String STREAM_ALL_SQL = """
+    SELECT PARENT.ID AS PARENT_ID, PARENT.FIRST_NAME AS PARENT_FIRST_NAME, PARENT.LAST_NAME AS PARENT_LAST_NAME, PARENT.DOB AS PARENT_DOB, PARENT.SALARY AS PARENT_SALARY, PARENT.EMAIL AS PARENT_EMAIL,
+    HOME.ID AS HOME_ID, HOME.STREET_ADDRESS AS HOME_STREET_ADDRESS, HOME.ADDRESS2 AS HOME_ADDRESS2, HOME.CITY AS HOME_CITY, HOME.STATE AS HOME_STATE, HOME.POSTCODE AS HOME_POSTCODE, HOME.COUNTY AS HOME_COUNTY, HOME.REGION AS HOME_REGION, HOME.COUNTRY AS HOME_COUNTRY,
+    BUSINESS.ID AS BUSINESS_ID, BUSINESS.STREET_ADDRESS AS BUSINESS_STREET_ADDRESS, BUSINESS.ADDRESS2 AS BUSINESS_ADDRESS2, BUSINESS.CITY AS BUSINESS_CITY, BUSINESS.STATE AS BUSINESS_STATE, BUSINESS.POSTCODE AS BUSINESS_POSTCODE, BUSINESS.COUNTY AS BUSINESS_COUNTY, BUSINESS.REGION AS BUSINESS_REGION, BUSINESS.COUNTRY AS BUSINESS_COUNTRY
+    FROM PERSON AS PARENT
+    LEFT OUTER JOIN ADDRESSES AS HOME ON PARENT.HOME_ADDRESS = HOME.ID
+    LEFT OUTER JOIN ADDRESSES AS BUSINESS ON PARENT.BUSINESS_ADDRESS = BUSINESS.ID
+    """;
+    public static final String QUERY_COUNT_SQL = """
+    SELECT COUNT(*)
+    FROM PERSON AS PARENT
+    LEFT OUTER JOIN ADDRESSES AS HOME ON PARENT.HOME_ADDRESS = HOME.ID
+    """;
+    public static final String QUERY_IDS_SQL = """
+    SELECT PARENT.ID
+    FROM PERSON AS PARENT
+    LEFT OUTER JOIN ADDRESSES AS HOME ON PARENT.HOME_ADDRESS = HOME.ID
+    """;
+    public static final String SALARY_STATISTICS_SQL = """
+    SELECT COUNT(PARENT.SALARY), SUM(PARENT.SALARY), AVG(PARENT.SALARY), MIN(PARENT.SALARY), MAX(PARENT.SALARY),
+    PERCENTILE_CONT(0.5) WITHIN GROUP (ORDER BY PARENT.SALARY),
+    PERCENTILE_CONT(0.9) WITHIN GROUP (ORDER BY PARENT.SALARY),
+    PERCENTILE_CONT(0.99) WITHIN GROUP (ORDER BY PARENT.SALARY)
+    FROM PERSON AS PARENT
+    LEFT OUTER JOIN ADDRESSES AS HOME ON PARENT.HOME_ADDRESS = HOME.ID
+    """;
+    public static final String SALARY_PERCENTILES_SQL = """
+    SELECT %s
+    FROM PERSON AS PARENT
+    LEFT OUTER JOIN ADDRESSES AS HOME ON PARENT.HOME_ADDRESS = HOME.ID
+    """;
+    public static final String COUNT_BY_SQL = """
+    SELECT %s AS GROUP_KEY, COUNT(*)
+    FROM PERSON AS PARENT
+    LEFT OUTER JOIN ADDRESSES AS HOME ON PARENT.HOME_ADDRESS = HOME.ID
+    """;
+    public static final String FIND_PAGE_SQL = """
+    SELECT PARENT.ID AS PARENT_ID, PARENT.FIRST_NAME AS PARENT_FIRST_NAME, PARENT.LAST_NAME AS PARENT_LAST_NAME, PARENT.DOB AS PARENT_DOB, PARENT.SALARY AS PARENT_SALARY, PARENT.EMAIL AS PARENT_EMAIL
+    FROM PERSON AS PARENT
+    WHERE PARENT.ID > ?
+    ORDER BY PARENT.ID
+    FETCH FIRST ? ROWS ONLY
+    """;
+    public static final String FIND_PAGE_WITH_ASSOCIATIONS_SQL = """
+    SELECT PARENT.ID AS PARENT_ID, PARENT.FIRST_NAME AS PARENT_FIRST_NAME, PARENT.LAST_NAME AS PARENT_LAST_NAME, PARENT.DOB AS PARENT_DOB, PARENT.SALARY AS PARENT_SALARY, PARENT.EMAIL AS PARENT_EMAIL,
+    CHILD.ID AS CHILD_ID, CHILD.FIRST_NAME AS CHILD_FIRST_NAME, CHILD.LAST_NAME AS CHILD_LAST_NAME, CHILD.DOB AS CHILD_DOB, CHILD.SALARY AS CHILD_SALARY, CHILD.EMAIL AS CHILD_EMAIL,
+    HOME.ID AS HOME_ID, HOME.STREET_ADDRESS AS HOME_STREET_ADDRESS, HOME.ADDRESS2 AS HOME_ADDRESS2, HOME.CITY AS HOME_CITY, HOME.STATE AS HOME_STATE, HOME.POSTCODE AS HOME_POSTCODE, HOME.COUNTY AS HOME_COUNTY, HOME.REGION AS HOME_REGION, HOME.COUNTRY AS HOME_COUNTRY,
+    BUSINESS.ID AS BUSINESS_ID, BUSINESS.STREET_ADDRESS AS BUSINESS_STREET_ADDRESS, BUSINESS.ADDRESS2 AS BUSINESS_ADDRESS2, BUSINESS.CITY AS BUSINESS_CITY, BUSINESS.STATE AS BUSINESS_STATE, BUSINESS.POSTCODE AS BUSINESS_POSTCODE, BUSINESS.COUNTY AS BUSINESS_COUNTY, BUSINESS.REGION AS BUSINESS_REGION, BUSINESS.COUNTRY AS BUSINESS_COUNTRY
+    FROM (SELECT * FROM PERSON WHERE ID > ? ORDER BY ID FETCH FIRST ? ROWS ONLY) AS PARENT
+    LEFT OUTER JOIN PERSON AS CHILD ON PARENT.ID = CHILD.PARENT_ID
+    LEFT OUTER JOIN ADDRESSES AS HOME ON PARENT.HOME_ADDRESS = HOME.ID
+    LEFT OUTER JOIN ADDRESSES AS BUSINESS ON PARENT.BUSINESS_ADDRESS = BUSINESS.ID
+    ORDER BY PARENT.ID
+    """;
     public static final String DELETE_ONE_SQL = "DELETE FROM PERSON WHERE ID=?";
-    public static final String DELETE_MANY_SQL = "DELETE FROM PERSON WHERE ID IN (:ids)";
-    public static final String UPDATE_SQL = "UPDATE PERSON SET FIRST_NAME=?, LAST_NAME=?, DOB=?, SALARY=? WHERE ID=?";
+    public static final String DELETE_MANY_SQL = "DELETE FROM PERSON WHERE ID = ANY(?)";
+    public static final String FIND_PARENT_IDS_SQL = "SELECT PARENT_ID FROM PERSON WHERE ID = ANY(?)";
+    public static final String FIND_CHILD_IDS_SQL = "SELECT ID FROM PERSON WHERE PARENT_ID = ANY(?)";
+    public static final String FIND_ADDRESS_IDS_SQL = "SELECT HOME_ADDRESS, BUSINESS_ADDRESS FROM PERSON WHERE ID = ANY(?)";
+    public static final String FIND_ORPHANED_ADDRESS_IDS_SQL = """
+    SELECT ID FROM ADDRESSES
+    WHERE ID = ANY(?)
+    AND NOT EXISTS (SELECT 1 FROM PERSON WHERE PERSON.HOME_ADDRESS = ADDRESSES.ID)
+    AND NOT EXISTS (SELECT 1 FROM PERSON WHERE PERSON.BUSINESS_ADDRESS = ADDRESSES.ID)""";
+    public static final String UPDATE_SQL = "UPDATE PERSON SET FIRST_NAME=?, LAST_NAME=?, DOB=?, SALARY=?, EMAIL=? WHERE ID=?";
     public static final String ALTER_TABLE_SQL = "ALTER TABLE PERSON ADD COLUMN EMAIL CHARACTER VARYING(255);";
 
-    private Map<String, Integer> aliasColumnIndexMap = new HashMap<>();
+    private final Map<List<String>, PersonMappingPlan> mappingPlans = new ConcurrentHashMap<>();
 
-    private AddressRepository addressRepository;
+    public static final int DEFAULT_ADDRESS_CACHE_SIZE = 10_000;
+
+    private final AddressRepository addressRepository;
+    private final AddressResolver addressResolver;
+    private final PersonGraphPersister graphPersister;
 
     public PersonRepository(Connection connection) {
-        super(connection);
-        addressRepository = new AddressRepository(connection);
+        this(connection, DEFAULT_STATEMENT_CACHE_SIZE);
+    }
+
+    /**
+     * @param connection the connection used by the repository
+     * @param statementCacheSize the number of prepared statements kept open for reuse
+     */
+    public PersonRepository(Connection connection, int statementCacheSize) {
+        super(connection, statementCacheSize);
+        addressRepository = new AddressRepository(getConnectionSource());
+        addressResolver = new AddressResolver(addressRepository, DEFAULT_ADDRESS_CACHE_SIZE, false, false);
+        graphPersister = new PersonGraphPersister(this, addressResolver);
+    }
+
+    /**
+     * Creates a repository that borrows a connection from the data source for each operation,
+     * and that can therefore be shared by any number of threads.
+     * @param dataSource the data source, e.g. a {@link com.bright.peopledb.pool.ConnectionPool}
+     */
+    public PersonRepository(DataSource dataSource) {
+        this(dataSource, DEFAULT_STATEMENT_CACHE_SIZE);
+    }
+
+    /**
+     * @param dataSource the data source, e.g. a {@link com.bright.peopledb.pool.ConnectionPool}
+     * @param statementCacheSize the number of prepared statements kept open for reuse, per pooled connection
+     */
+    public PersonRepository(DataSource dataSource, int statementCacheSize) {
+        super(dataSource, statementCacheSize);
+        addressRepository = new AddressRepository(getConnectionSource());
+        addressResolver = new AddressResolver(addressRepository, DEFAULT_ADDRESS_CACHE_SIZE, false, false);
+        graphPersister = new PersonGraphPersister(this, addressResolver);
     }
 
     /**
@@ -66,6 +199,7 @@ public class PersonRepository extends CrudRepository<Person> {
      */
     @Override
     @SQL(value = SAVE_PERSON_SQL, crudOperation = CrudOperation.SAVE)
+    @SQL(value = UPSERT_PERSON_SQL, crudOperation = CrudOperation.UPSERT)
     public void mapForSave(Person entity, PreparedStatement preparedStatement) throws SQLException {
         preparedStatement.setString(1,entity.getFirstName());
         preparedStatement.setString(2,entity.getLastName());
@@ -87,17 +221,178 @@ public class PersonRepository extends CrudRepository<Person> {
         }
     }
 
+    /**
+     * Copies the person with their children, so a cached graph is never shared with a caller.
+     * Addresses are immutable and shared; a parent is copied without its other children.
+     */
+    @Override
+    protected Person copyOf(Person entity) {
+        Person copy = copyGraph(entity, null);
+        entity.getParent().ifPresent(parent -> copy.setParent(copyPerson(parent)));
+        return copy;
+    }
+
+    private static Person copyGraph(Person person, Person parentCopy) {
+        Person copy = copyPerson(person);
+        if (Objects.nonNull(parentCopy)) {
+            parentCopy.addChild(copy);
+        }
+        person.getChildren().forEach(child -> copyGraph(child, copy));
+        return copy;
+    }
+
+    private static Person copyPerson(Person person) {
+        Person copy = new Person(person.getId(), person.getFirstName(), person.getLastName(), person.getDateOfBirth(), person.getSalary());
+        copy.setEmail(person.getEmail());
+        copy.setHomeAddress(person.getHomeAddress().orElse(null));
+        copy.setBusinessAddress(person.getBusinessAddress().orElse(null));
+        return copy;
+    }
+
+    /**
+     * A cached parent's graph contains its children, so changing a child makes the parent stale too.
+     * The parent is read from PARENT_ID when it is not attached, e.g. for a child found by its own ID.
+     */
+    @Override
+    protected Collection<Long> cacheKeysAffectedBy(Person entity) {
+        List<Long> keys = new ArrayList<>(2);
+        keys.add(entity.getId());
+        Optional<Long> parentId = entity.getParent().map(Person::getId);
+        if (parentId.isPresent()) {
+            keys.add(parentId.get());
+        } else if (Objects.nonNull(entity.getId())) {
+            keys.addAll(queryIds(FIND_PARENT_IDS_SQL, List.of(entity.getId())));
+        }
+        return keys;
+    }
+
+    /**
+     * Saves the people together with their children, grandchildren and addresses,
+     * with one batch of addresses and then one batch per generation.
+     * @param entities the people to be saved inside the database
+     * @param batchSize the number of rows sent to the database per batch
+     * @return The saved people, in the order they were supplied
+     */
+    @Override
+    public List<Person> saveAll(Iterable<Person> entities, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1 but was " + batchSize);
+        }
+        return graphPersister.persist(entities, batchSize);
+    }
+
+    /**
+     * Upserts the people like {@link CrudRepository#upsertAll(Iterable, int)} does, after resolving
+     * all their addresses with one batch. Children are not upserted.
+     */
+    @Override
+    public UpsertResult upsertAll(Iterable<Person> entities, int batchSize) {
+        List<Person> people = new ArrayList<>();
+        entities.forEach(people::add);
+        resolveAddresses(people, batchSize);
+        return super.upsertAll(people, batchSize);
+    }
+
+    /**
+     * Upserts the people with {@link #DEFAULT_BATCH_SIZE} rows per batch.
+     * @see #upsertAllByEmail(Iterable, int)
+     */
+    public UpsertResult upsertAllByEmail(Iterable<Person> people) {
+        return upsertAllByEmail(people, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Upserts the people using their email as the natural key, for callers that do not know the people's IDs:
+     * batches of a MERGE keyed on EMAIL update every column of the rows with the same email and insert the others.
+     * The IDs of the emails are selected before the merge, to count the inserted and updated rows, and after it,
+     * to set the IDs of the people. Both counts are of distinct emails. Children are not upserted.
+     * @param people the people to upsert, each with an email
+     * @param batchSize the number of rows sent to the database per batch
+     * @return The IDs of the people and the number of rows inserted and updated
+     */
+    public UpsertResult upsertAllByEmail(Iterable<Person> people, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1 but was " + batchSize);
+        }
+        List<Person> allPeople = new ArrayList<>();
+        Set<String> emails = new LinkedHashSet<>();
+        for (Person person : people) {
+            if (Objects.isNull(person.getEmail())) {
+                throw new IllegalArgumentException("Unable to upsert a person without an email by email: " + person);
+            }
+            allPeople.add(person);
+            emails.add(person.getEmail());
+        }
+        if (allPeople.isEmpty()) {
+            return new UpsertResult(List.of(), 0, 0);
+        }
+        int updated = findIdsByEmail(emails).size();
+        resolveAddresses(allPeople, batchSize);
+        try {
+            merge(UPSERT_PERSON_BY_EMAIL_SQL, allPeople, batchSize, this::mapForSave);
+        } finally {
+            invalidateAll();
+        }
+        Map<String, Long> idsByEmail = findIdsByEmail(emails);
+        allPeople.forEach(person -> person.setId(idsByEmail.get(person.getEmail())));
+        allPeople.forEach(this::updated);
+        return new UpsertResult(allPeople.stream().map(Person::getId).toList(), emails.size() - updated, updated);
+    }
+
+    /**
+     * @return The lowest ID of each email found, with one query per {@link #DEFAULT_ID_CHUNK_SIZE} emails
+     */
+    private Map<String, Long> findIdsByEmail(Collection<String> emails) {
+        String[] distinctEmails = emails.toArray(String[]::new);
+        try {
+            return getConnectionSource().withConnection(statementCache -> {
+                PreparedStatement ps = statementCache.prepare(FIND_IDS_BY_EMAIL_SQL);
+                Map<String, Long> idsByEmail = new HashMap<>();
+                for (int from = 0; from < distinctEmails.length; from += DEFAULT_ID_CHUNK_SIZE) {
+                    String[] chunk = Arrays.copyOfRange(distinctEmails, from, Math.min(from + DEFAULT_ID_CHUNK_SIZE, distinctEmails.length));
+                    ps.setArray(1, ps.getConnection().createArrayOf("VARCHAR", chunk));
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            idsByEmail.putIfAbsent(rs.getString("EMAIL"), rs.getLong("ID"));
+                        }
+                    }
+                }
+                return idsByEmail;
+            });
+        } catch (SQLException e) {
+            throw new DataException("Unable to find people by their emails", e);
+        }
+    }
+
+    private void resolveAddresses(List<Person> people, int batchSize) {
+        List<Address> addresses = new ArrayList<>();
+        for (Person person : people) {
+            person.getHomeAddress().ifPresent(addresses::add);
+            person.getBusinessAddress().ifPresent(addresses::add);
+        }
+        if (addresses.isEmpty()) {
+            return;
+        }
+        try {
+            getConnectionSource().withConnection(statementCache -> {
+                addressResolver.resolveAll(addresses, batchSize);
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new DataException("Unable to save the addresses of the people", e);
+        }
+    }
+
     @Override
     protected void postSave(Person entity, long id) {
-       entity.getChildren()
-               .forEach(this::save);
+        if (!entity.getChildren().isEmpty()) {
+            saveAll(entity.getChildren());
+        }
     }
 
     private void associateAddressWithPerson(PreparedStatement preparedStatement, Optional<Address> address, int parameterIndex) throws SQLException {
-        Address savedAddress;
         if (address.isPresent()) {
-            savedAddress = addressRepository.save(address.get());
-            preparedStatement.setLong(parameterIndex, savedAddress.id());
+            preparedStatement.setLong(parameterIndex, addressResolver.resolve(address.get()));
         }
         else {
             preparedStatement.setObject(parameterIndex, null);
@@ -111,48 +406,314 @@ public class PersonRepository extends CrudRepository<Person> {
        preparedStatement.setString(2, entity.getLastName());
        preparedStatement.setTimestamp(3, covertDobToTimestamp(entity.getDateOfBirth()));
        preparedStatement.setBigDecimal(4, entity.getSalary());
+       preparedStatement.setString(5, entity.getEmail());
     }
+
+    /**
+     * @param lookupAddressesInDatabase whether an address not saved through this repository before is looked up
+     *                                  in the ADDRESSES table before it is inserted. Off by default, as it costs
+     *                                  a query per distinct new address.
+     */
+    public void setLookupAddressesInDatabase(boolean lookupAddressesInDatabase) {
+        addressResolver.setLookupDatabase(lookupAddressesInDatabase);
+    }
+
+    /**
+     * @param rememberAddressIds whether the IDs of the addresses saved or found are remembered, so later operations
+     *                           reuse their rows without a query. Off by default, as the remembered IDs are not
+     *                           transactional: whoever turns it on must call {@link #clearAddressCache()} after
+     *                           every rollback of a transaction that saved addresses.
+     */
+    public void setRememberAddressIds(boolean rememberAddressIds) {
+        addressResolver.setRememberIds(rememberAddressIds);
+    }
+
+    /**
+     * Forgets the IDs of the addresses remembered so far. Must be called after rolling back a transaction
+     * that saved addresses while {@link #setRememberAddressIds(boolean) remembering address IDs}, as the
+     * remembered IDs may no longer exist.
+     */
+    public void clearAddressCache() {
+        addressResolver.clear();
+    }
+
+    /**
+     * @return How many addresses reused an existing row instead of being inserted
+     */
+    public AddressResolverStatistics getAddressResolverStatistics() {
+        return addressResolver.getStatistics();
+    }
+
+    /**
+     * Deletes the people together with their descendants and the addresses no one else lives or works at.
+     * The descendants are found one generation per query and deleted youngest generation first, so no
+     * PARENT_ID ever points to a deleted row; the addresses no one uses any more are then selected and deleted by their IDs.
+     * Run it inside a transaction to delete the whole family tree or nothing.
+     * @param ids the IDs of the people to delete
+     * @return The number of people deleted, including descendants
+     */
+    public int deleteCascade(Collection<Long> ids) {
+        List<List<Long>> generations = new ArrayList<>();
+        Set<Long> visited = new HashSet<>(ids);
+        List<Long> generation = new ArrayList<>(visited);
+        while (!generation.isEmpty()) {
+            generations.add(generation);
+            generation = queryIds(FIND_CHILD_IDS_SQL, generation).stream().filter(visited::add).toList();
+        }
+        if (generations.isEmpty()) {
+            return 0;
+        }
+        List<Long> addressIds = queryIds(FIND_ADDRESS_IDS_SQL, visited);
+        int deleted = 0;
+        for (int i = generations.size() - 1; i >= 0; i--) {
+            deleted += deleteByIds(generations.get(i));
+        }
+        if (!addressIds.isEmpty()) {
+            addressRepository.deleteByIds(addressRepository.queryIds(FIND_ORPHANED_ADDRESS_IDS_SQL, new LinkedHashSet<>(addressIds)));
+            addressResolver.forget(addressIds);
+        }
+        return deleted;
+    }
+
+    /**
+     * Deletes the people matching the query, up to its limit, like {@link #deleteCascade(Collection)} does.
+     * @return The number of people deleted, including descendants
+     */
+    public int deleteWhereCascade(PersonQuery query) {
+        CompiledQuery compiledQuery = query.compile(QUERY_IDS_SQL);
+        return deleteCascade(queryIds(compiledQuery.sql(), compiledQuery::bind));
+    }
+
+    /**
+     * @return The people matching the query, with their addresses but without their children
+     */
+    public List<Person> findAll(PersonQuery query) {
+        CompiledQuery compiledQuery = query.compile(STREAM_ALL_SQL);
+        return query(CrudOperation.QUERY, compiledQuery.sql(), compiledQuery::bind);
+    }
+
+    /**
+     * Streams the people matching the query, with their addresses but without their children,
+     * with {@link #DEFAULT_FETCH_SIZE} rows per fetch. The stream must be closed, see {@link #streamAll(int)}.
+     */
+    public Stream<Person> stream(PersonQuery query) {
+        CompiledQuery compiledQuery = query.compile(STREAM_ALL_SQL);
+        return stream(CrudOperation.QUERY, compiledQuery.sql(), DEFAULT_FETCH_SIZE, compiledQuery::bind);
+    }
+
+    /**
+     * @return The number of people matching the query, ignoring its limit
+     */
+    public long count(PersonQuery query) {
+        CompiledQuery compiledQuery = query.compileCount(QUERY_COUNT_SQL);
+        return queryForLong(CrudOperation.COUNT, compiledQuery.sql(), compiledQuery::bind);
+    }
+
+    /**
+     * Deletes the people matching the query, up to its limit. Their IDs are selected first and the people
+     * deleted by ID, so the entity listeners learn which people were deleted.
+     * @return The number of people deleted
+     */
+    public int deleteWhere(PersonQuery query) {
+        CompiledQuery compiledQuery = query.compile(QUERY_IDS_SQL);
+        return deleteByIds(queryIds(compiledQuery.sql(), compiledQuery::bind));
+    }
+
+    /**
+     * @return The salary figures of everyone
+     */
+    public SalaryStatistics salaryStatistics() {
+        return salaryStatistics(PersonQuery.all());
+    }
+
+    /**
+     * Computes the salary figures in the database with one aggregate query, instead of loading the people.
+     * @param query the people to include. Its ordering and limit are ignored.
+     */
+    public SalaryStatistics salaryStatistics(PersonQuery query) {
+        CompiledQuery compiledQuery = query.compileCount(SALARY_STATISTICS_SQL);
+        return queryForResult(CrudOperation.AGGREGATE, compiledQuery.sql(), compiledQuery::bind, rs -> {
+            rs.next();
+            return new SalaryStatistics(rs.getLong(1), getDouble(rs, 2), getDouble(rs, 3), getDouble(rs, 4),
+                    getDouble(rs, 5), getDouble(rs, 6), getDouble(rs, 7), getDouble(rs, 8));
+        }, statistics -> 1);
+    }
+
+    /**
+     * @param query the people to include. Its ordering and limit are ignored.
+     * @param fractions the percentiles to compute, between 0 and 1, e.g. 0.25 for the lower quartile
+     * @return The salary at each percentile, interpolated between the nearest salaries, or NaN if no one has a salary
+     */
+    public double[] salaryPercentiles(PersonQuery query, double... fractions) {
+        if (fractions.length == 0) {
+            return new double[0];
+        }
+        StringJoiner percentiles = new StringJoiner(", ");
+        for (double fraction : fractions) {
+            if (!(fraction >= 0 && fraction <= 1)) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 1 but was " + fraction);
+            }
+            percentiles.add("PERCENTILE_CONT(" + fraction + ") WITHIN GROUP (ORDER BY PARENT.SALARY)");
+        }
+        CompiledQuery compiledQuery = query.compileCount(SALARY_PERCENTILES_SQL.formatted(percentiles));
+        return queryForResult(CrudOperation.AGGREGATE, compiledQuery.sql(), compiledQuery::bind, rs -> {
+            rs.next();
+            double[] salaries = new double[fractions.length];
+            for (int i = 0; i < salaries.length; i++) {
+                salaries[i] = getDouble(rs, i + 1);
+            }
+            return salaries;
+        }, salaries -> 1);
+    }
+
+    /**
+     * @return The number of people in each group, over everyone
+     */
+    public GroupCounts countBy(PersonGrouping grouping) {
+        return countBy(grouping, PersonQuery.all());
+    }
+
+    /**
+     * Counts the people in each group with one GROUP BY query, instead of loading the people.
+     * @param query the people to include. Its ordering and limit are ignored.
+     */
+    public GroupCounts countBy(PersonGrouping grouping, PersonQuery query) {
+        String groupKey = switch (grouping) {
+            case REGION -> "HOME.REGION";
+            case STATE -> "HOME.STATE";
+            case BIRTH_DECADE -> "EXTRACT(YEAR FROM PARENT.DOB) / 10 * 10";
+        };
+        CompiledQuery compiledQuery = query.compileCount(COUNT_BY_SQL.formatted(groupKey));
+        String sql = compiledQuery.sql() + "\nGROUP BY " + groupKey + "\nORDER BY GROUP_KEY";
+        return queryForResult(CrudOperation.AGGREGATE, sql, compiledQuery::bind, rs -> {
+            List<String> keys = new ArrayList<>();
+            long[] counts = new long[16];
+            while (rs.next()) {
+                if (keys.size() == counts.length) {
+                    counts = Arrays.copyOf(counts, counts.length * 2);
+                }
+                counts[keys.size()] = rs.getLong(2);
+                keys.add(rs.getString(1));
+            }
+            return new GroupCounts(keys.toArray(String[]::new), Arrays.copyOf(counts, keys.size()));
+        }, GroupCounts::size);
+    }
+
+    private static double getDouble(ResultSet resultSet, int column) throws SQLException {
+        double value = resultSet.getDouble(column);
+        return resultSet.wasNull() ? Double.NaN : value;
+    }
+
+    @Override
+    protected String getTableName() {
+        return "PERSON";
+    }
+
+    @Override
+    protected Map<String, Object> snapshotColumns(Person entity) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        columns.put("FIRST_NAME", entity.getFirstName());
+        columns.put("LAST_NAME", entity.getLastName());
+        columns.put("DOB", Objects.isNull(entity.getDateOfBirth()) ? null : covertDobToTimestamp(entity.getDateOfBirth()));
+        columns.put("SALARY", entity.getSalary());
+        columns.put("EMAIL", entity.getEmail());
+        return columns;
+    }
+    /**
+     * Maps a single row through the plan of its result set's columns, like {@link #rowMapper(String, ResultSet)} does.
+     */
+    @Override
+    Person extractEntityFromResultSet(ResultSet rs) throws SQLException {
+        return mappingPlan(rs).extract(rs);
+    }
+
+    /**
+     * The queries of this repository are mapped through a {@link PersonMappingPlan} compiled from the
+     * column labels of their result sets, since FIND_BY_ID, FIND_ALL and the other queries all have different
+     * column layouts. The plans are cached by those labels rather than by the SQL, so the queries of every
+     * {@link PersonQuery} selecting the same columns share one plan, and there is one plan per layout.
+     */
     @Override
     @SQL(value = FIND_BY_ID_SQL, crudOperation = CrudOperation.FIND_BY_ID)
+    @SQL(value = FIND_BY_IDS_SQL, crudOperation = CrudOperation.FIND_BY_IDS)
     @SQL(value= FIND_ALL_SQL, crudOperation = CrudOperation.FIND_ALL)
+    @SQL(value= STREAM_ALL_SQL, crudOperation = CrudOperation.STREAM_ALL)
     @SQL(value= GET_COUNT_SQL, crudOperation = CrudOperation.COUNT)
     @SQL(value= DELETE_ONE_SQL, crudOperation = CrudOperation.DELETE_ONE)
-    Person extractEntityFromResultSet(ResultSet rs) throws SQLException {
-        Person finalParent = null;
-        do {
-            Person currentParent = extractPerson(rs, "PARENT_").get();
-            if (Objects.isNull(finalParent)) {
-                finalParent = currentParent;
-            }
-            if (!finalParent.equals(currentParent)) {
-                rs.previous();
-                break;
-            }
-            Optional<Person> child = extractPerson(rs, "CHILD_");
-            finalParent.setHomeAddress(extractAddress(rs, "HOME_"));
-            finalParent.setBusinessAddress(extractAddress(rs, "BUSINESS_"));
-            child.ifPresent(finalParent::addChild);
-        } while (rs.next());
-        return finalParent;
+    RowMapper<Person> rowMapper(String sql, ResultSet resultSet) throws SQLException {
+        return mappingPlan(resultSet);
+    }
+
+    private PersonMappingPlan mappingPlan(ResultSet resultSet) throws SQLException {
+        return mappingPlans.computeIfAbsent(PersonMappingPlan.columnLabels(resultSet.getMetaData()), PersonMappingPlan::compile);
     }
 
     /**
-     * @param rs Result Set
-     * @param aliasPrefix Alias Prefix for the column names
-     * @return A new Person from the result set
-     * @throws SQLException thrown
+     * Reads the page of people following afterId, using WHERE ID > ? ORDER BY ID rather than OFFSET,
+     * so that every page costs the same however deep into the table it is.
+     * @param afterId the ID the page starts after, 0 for the first page
+     * @param limit the maximum number of people on the page
+     * @return The page, without children and addresses
      */
-    @NotNull
-    private Optional<Person> extractPerson(ResultSet rs, String aliasPrefix) throws SQLException {
-        Long personID = getValueByAlias( aliasPrefix + "ID", rs, Long.class);
-        if (Objects.isNull(personID)) {
-            return Optional.empty();
+    public Page<Person> findPage(long afterId, int limit) {
+        return findPage(afterId, limit, false);
+    }
+
+    /**
+     * @param continuationToken the token of the previous page, or null for the first page
+     * @param limit the maximum number of people on the page
+     * @param withAssociations whether to load the children and addresses of the people on the page in the same query
+     */
+    public Page<Person> findPage(String continuationToken, int limit, boolean withAssociations) {
+        return findPage(Page.decodeContinuationToken(continuationToken), limit, withAssociations);
+    }
+
+    /**
+     * @param afterId the ID the page starts after, 0 for the first page
+     * @param limit the maximum number of people on the page
+     * @param fetchMode whether the children and addresses of the people on the page are loaded in the same query,
+     *                  or, with one query for the whole page, when those of any of them are first accessed
+     */
+    public Page<Person> findPage(long afterId, int limit, FetchMode fetchMode) {
+        Page<Person> page = findPage(afterId, limit, fetchMode == FetchMode.EAGER);
+        if (fetchMode == FetchMode.LAZY) {
+            PersonAssociationLoader.attach(this, page.content());
         }
-        String firstName = getValueByAlias(aliasPrefix + "FIRST_NAME", rs, String.class);
-        String lastName = getValueByAlias(aliasPrefix + "LAST_NAME", rs, String.class);
-        ZonedDateTime dob = ZonedDateTime.of(getValueByAlias(aliasPrefix + "DOB",rs, Timestamp.class).toLocalDateTime(), ZoneId.of("+0"));
-        BigDecimal salary = getValueByAlias(aliasPrefix + "SALARY", rs, BigDecimal.class);
-        return Optional.of(new Person(personID, firstName, lastName, dob, salary));
+        return page;
+    }
+
+    /**
+     * Finds the first 100 people, like {@link #findAll()}, with their children and addresses.
+     * @param fetchMode whether the children and addresses are loaded before returning, or, with one query
+     *                  for all people found, when those of any of them are first accessed
+     */
+    public List<Person> findAll(FetchMode fetchMode) {
+        List<Person> people = findAll();
+        PersonAssociationLoader loader = PersonAssociationLoader.attach(this, people);
+        if (fetchMode == FetchMode.EAGER) {
+            loader.loadAll();
+        }
+        return people;
+    }
+
+    /**
+     * @param afterId the ID the page starts after, 0 for the first page
+     * @param limit the maximum number of people on the page
+     * @param withAssociations whether to load the children and addresses of the people on the page in the same query
+     */
+    public Page<Person> findPage(long afterId, int limit, boolean withAssociations) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page limit must be at least 1 but was " + limit);
+        }
+        // One row more than the limit tells whether there is a next page.
+        List<Person> people = query(CrudOperation.FIND_PAGE, withAssociations ? FIND_PAGE_WITH_ASSOCIATIONS_SQL : FIND_PAGE_SQL, ps -> {
+            ps.setLong(1, afterId);
+            ps.setInt(2, limit + 1);
+        });
+        boolean hasNext = people.size() > limit;
+        List<Person> content = hasNext ? people.subList(0, limit) : people;
+        Long lastId = content.isEmpty() ? afterId : content.get(content.size() - 1).getId();
+        return new Page<>(content, lastId, hasNext);
     }
 
     /**
@@ -198,40 +759,4 @@ public class PersonRepository extends CrudRepository<Person> {
         return Timestamp.valueOf(dob.withZoneSameInstant(ZoneId.of("+0")).toLocalDateTime());
     }
 
-    private Address extractAddress(ResultSet resultSet, String aliasPrefix) throws SQLException {
-        Long addressId = getValueByAlias(aliasPrefix + "ID", resultSet, Long.class);
-        if(Objects.isNull(addressId)){
-            return null;
-        }
-        String streetAddress = getValueByAlias(aliasPrefix + "STREET_ADDRESS",resultSet, String.class);
-        String address2 = getValueByAlias(aliasPrefix + "ADDRESS2",resultSet, String.class);
-        String city = getValueByAlias(aliasPrefix + "CITY",resultSet, String.class);
-        String state = getValueByAlias(aliasPrefix + "STATE",resultSet, String.class);
-        String postcode = getValueByAlias(aliasPrefix + "POSTCODE",resultSet, String.class);
-        String county = getValueByAlias(aliasPrefix + "COUNTY",resultSet, String.class);
-        Region region = Region.valueOf(getValueByAlias(aliasPrefix + "REGION",resultSet, String.class).toUpperCase());
-        String country = getValueByAlias(aliasPrefix + "COUNTRY",resultSet, String.class);
-        return new Address(addressId, streetAddress, address2, city, state, postcode, country, county, region);
-    }
-
-    private <T> T getValueByAlias(String columnAlias, ResultSet resultSet, Class<T> clazz) throws SQLException {
-        int columnCount = resultSet.getMetaData().getColumnCount();
-        int foundIdx = getIndexForAlias(columnAlias, resultSet, columnCount);
-        return foundIdx == 0 ? null: (T) resultSet.getObject(foundIdx);
-    }
-
-    private int getIndexForAlias(String columnAlias, ResultSet resultSet, int columnCount) throws SQLException {
-        Integer foundIdx = aliasColumnIndexMap.getOrDefault(columnAlias, 0);
-        if (foundIdx == 0) {
-            for(int colIdx = 1; colIdx<=columnCount; colIdx++){
-                if(columnAlias.equals(resultSet.getMetaData().getColumnLabel(colIdx))){
-                    foundIdx = colIdx;
-                    aliasColumnIndexMap.put(columnAlias, foundIdx);
-                    break;
-                }
-            }
-        }
-        return foundIdx;
-    }
-
 }
@@ -0,0 +1,63 @@
+package com.bright.peopledb.repository;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import com.bright.peopledb.annotation.MultiSQL;
+import com.bright.peopledb.annotation.SQL;
+import com.bright.peopledb.model.CrudOperation;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * The {@link SQL} statements declared on a repository class, resolved once per class
+ * instead of scanning the declared methods on every call.
+ */
+final class RepositoryMetadata {
+
+    private static final ClassValue<RepositoryMetadata> REGISTRY = new ClassValue<>() {
+        @Override
+        protected RepositoryMetadata computeValue(Class<?> repositoryClass) {
+            return new RepositoryMetadata(repositoryClass);
+        }
+    };
+
+    private final Map<CrudOperation, String> sqlByOperation;
+
+    private RepositoryMetadata(Class<?> repositoryClass) {
+        Map<CrudOperation, String> sql = new EnumMap<>(CrudOperation.class);
+        Method[] methods = repositoryClass.getDeclaredMethods();
+        Stream<SQL> multiSqlStream = Arrays.stream(methods)
+                .filter(m -> m.isAnnotationPresent(MultiSQL.class))
+                .map(m -> m.getAnnotation(MultiSQL.class))
+                .flatMap(msql -> Arrays.stream(msql.value()));
+
+        Stream<SQL> sqlStream = Arrays.stream(methods)
+                .filter(m -> m.isAnnotationPresent(SQL.class))
+                .map(m -> m.getAnnotation(SQL.class));
+
+        Stream.concat(multiSqlStream, sqlStream)
+                .forEach(a -> sql.putIfAbsent(a.crudOperation(), a.value()));
+        this.sqlByOperation = Collections.unmodifiableMap(sql);
+    }
+
+    static RepositoryMetadata of(Class<?> repositoryClass) {
+        return REGISTRY.get(repositoryClass);
+    }
+
+    /**
+     * @return The SQL annotated for the operation, or null if the repository does not annotate one
+     */
+    String getSql(CrudOperation crudOperation) {
+        return sqlByOperation.get(crudOperation);
+    }
+}
@@ -0,0 +1,33 @@
+package com.bright.peopledb.repository;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the rows of one query to entities, where an entity may span several consecutive rows.
+ * @see EntityReader
+ */
+interface RowMapper<T> {
+
+    /**
+     * @return The entity read from the current row, without moving the cursor
+     */
+    T extract(ResultSet resultSet) throws SQLException;
+
+    /**
+     * @return Whether the current row continues the entity read from the previous rows
+     */
+    boolean belongsTo(T entity, ResultSet resultSet) throws SQLException;
+
+    /**
+     * Adds the data of a further row of the same entity to the entity.
+     */
+    void mergeRow(T entity, ResultSet resultSet) throws SQLException;
+}
@@ -0,0 +1,23 @@
+package com.bright.peopledb.repository;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+/**
+ * Salary figures computed by the database in one aggregate query. All but the count are NaN when no one has a salary.
+ * @param count the number of people with a salary
+ * @param sum the total of the salaries
+ * @param average the mean salary
+ * @param min the lowest salary
+ * @param max the highest salary
+ * @param median the 50th percentile, interpolated between the two middle salaries if needed
+ * @param p90 the 90th percentile
+ * @param p99 the 99th percentile
+ */
+public record SalaryStatistics(long count, double sum, double average, double min, double max,
+                               double median, double p90, double p99) {
+}
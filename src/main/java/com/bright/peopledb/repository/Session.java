@@ -0,0 +1,229 @@
+package com.bright.peopledb.repository;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import com.bright.peopledb.exception.DataException;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A unit of work over one repository.
+ * <p>
+ * The session keeps an identity map of the entities it has loaded, so an entity found twice is
+ * the same object and is only selected once, together with a snapshot of its column values.
+ * Changes are not written until {@link #flush()}, which inserts the persisted entities in batches,
+ * then updates only the entities whose columns changed since they were loaded, setting only those
+ * columns, and finally deletes the removed entities.
+ * <p>
+ * A session is meant to be short-lived and used by one thread, e.g. per request.
+ */
+public class Session<T> implements AutoCloseable {
+
+    private final CrudRepository<T> repository;
+    private final Map<Long, T> identityMap = new LinkedHashMap<>();
+    private final Map<Long, Map<String, Object>> snapshots = new LinkedHashMap<>();
+    private final List<T> newEntities = new ArrayList<>();
+    private final Map<Long, T> removedEntities = new LinkedHashMap<>();
+
+    Session(CrudRepository<T> repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * @param id the ID of the entity
+     * @return The entity from the identity map, or loaded from the database on first access
+     */
+    public Optional<T> find(Long id) {
+        if (removedEntities.containsKey(id)) {
+            return Optional.empty();
+        }
+        T entity = identityMap.get(id);
+        if (entity != null) {
+            return Optional.of(entity);
+        }
+        Optional<T> found = repository.findByID(id);
+        found.ifPresent(e -> manage(id, e));
+        return found;
+    }
+
+    /**
+     * Loads the entities that are not in the identity map yet with a single findAllByIds.
+     * @return The entities found, in the order of the IDs
+     */
+    public List<T> findAll(Collection<Long> ids) {
+        List<Long> missingIds = ids.stream()
+                .filter(id -> !identityMap.containsKey(id) && !removedEntities.containsKey(id))
+                .toList();
+        if (!missingIds.isEmpty()) {
+            repository.findAllByIdsAsMap(missingIds).forEach(this::manage);
+        }
+        return ids.stream()
+                .filter(id -> !removedEntities.containsKey(id))
+                .map(identityMap::get)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * Schedules a new entity to be inserted on the next flush.
+     * @throws IllegalArgumentException if the entity already has an ID, i.e. is already stored
+     */
+    public void persist(T entity) {
+        if (Objects.nonNull(repository.findIdByAnnotation(entity))) {
+            throw new IllegalArgumentException("Unable to persist an entity that already has an ID: " + entity);
+        }
+        if (!isNew(entity)) {
+            newEntities.add(entity);
+        }
+    }
+
+    /**
+     * Schedules an entity to be deleted on the next flush.
+     */
+    public void remove(T entity) {
+        if (isNew(entity)) {
+            newEntities.removeIf(newEntity -> newEntity == entity);
+            return;
+        }
+        Long id = repository.findIdByAnnotation(entity);
+        identityMap.remove(id);
+        snapshots.remove(id);
+        removedEntities.put(id, entity);
+    }
+
+    /**
+     * @return Whether the entity is managed by this session
+     */
+    public boolean contains(T entity) {
+        return isNew(entity) || identityMap.get(repository.findIdByAnnotation(entity)) == entity;
+    }
+
+    /**
+     * @return Whether flush would write anything
+     */
+    public boolean isDirty() {
+        return !newEntities.isEmpty() || !removedEntities.isEmpty() || !dirtyColumns().isEmpty();
+    }
+
+    /**
+     * Writes the pending changes: inserts, then updates of the changed columns, then deletes.
+     * Each kind of write is batched, and all of them run on one connection. If that connection is in a
+     * transaction, the changes are committed with it; otherwise, e.g. for a connection borrowed from a pool,
+     * the flush runs in a transaction of its own, so it writes all of the changes or none of them.
+     */
+    public void flush() {
+        Map<List<String>, Map<Long, List<Object>>> updatesByColumns = new LinkedHashMap<>();
+        dirtyColumns().forEach((id, changes) -> updatesByColumns
+                .computeIfAbsent(List.copyOf(changes.keySet()), columns -> new LinkedHashMap<>())
+                .put(id, List.copyOf(changes.values())));
+        try {
+            repository.getConnectionSource().withConnection(statementCache -> {
+                Connection connection = statementCache.getConnection();
+                boolean autoCommit = connection.getAutoCommit();
+                if (autoCommit) {
+                    connection.setAutoCommit(false);
+                }
+                try {
+                    write(updatesByColumns);
+                    if (autoCommit) {
+                        connection.commit();
+                    }
+                } catch (SQLException | RuntimeException e) {
+                    if (autoCommit) {
+                        connection.rollback();
+                    }
+                    throw e;
+                } finally {
+                    if (autoCommit) {
+                        connection.setAutoCommit(true);
+                    }
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new DataException("Unable to flush the session", e);
+        }
+        newEntities.forEach(entity -> manage(repository.findIdByAnnotation(entity), entity));
+        newEntities.clear();
+        updatesByColumns.values().forEach(updates -> updates.keySet().forEach(id -> {
+            T entity = identityMap.get(id);
+            repository.invalidate(entity);
+            repository.updated(entity);
+            snapshots.put(id, repository.snapshotColumns(entity));
+        }));
+        removedEntities.clear();
+    }
+
+    private void write(Map<List<String>, Map<Long, List<Object>>> updatesByColumns) {
+        if (!newEntities.isEmpty()) {
+            repository.saveAll(newEntities);
+        }
+        updatesByColumns.forEach(repository::updateColumns);
+        if (!removedEntities.isEmpty()) {
+            repository.deleteAll(removedEntities.values());
+        }
+    }
+
+    /**
+     * Forgets all managed entities and pending changes without writing them.
+     */
+    public void clear() {
+        identityMap.clear();
+        snapshots.clear();
+        newEntities.clear();
+        removedEntities.clear();
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+
+    private boolean isNew(T entity) {
+        return newEntities.stream().anyMatch(newEntity -> newEntity == entity);
+    }
+
+    private void manage(Long id, T entity) {
+        identityMap.put(id, entity);
+        snapshots.put(id, repository.snapshotColumns(entity));
+    }
+
+    private Map<Long, Map<String, Object>> dirtyColumns() {
+        Map<Long, Map<String, Object>> dirty = new LinkedHashMap<>();
+        identityMap.forEach((id, entity) -> {
+            Map<String, Object> snapshot = snapshots.get(id);
+            Map<String, Object> changes = new LinkedHashMap<>();
+            repository.snapshotColumns(entity).forEach((column, value) -> {
+                if (!columnEquals(snapshot.get(column), value)) {
+                    changes.put(column, value);
+                }
+            });
+            if (!changes.isEmpty()) {
+                dirty.put(id, changes);
+            }
+        });
+        return dirty;
+    }
+
+    private static boolean columnEquals(Object loaded, Object current) {
+        if (loaded instanceof BigDecimal loadedDecimal && current instanceof BigDecimal currentDecimal) {
+            return loadedDecimal.compareTo(currentDecimal) == 0;
+        }
+        return Objects.equals(loaded, current);
+    }
+}
@@ -0,0 +1,178 @@
+package com.bright.peopledb.repository;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import com.bright.peopledb.diagnostics.SlowQueryLog;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A per-connection cache of prepared statements keyed by SQL and result set type,
+ * evicting (and closing) the least recently used statement once it is full.
+ * Like the connection it wraps, a StatementCache must only be used by one thread at a time.
+ * <p>
+ * Operations run between {@link #enter()} and {@link #exit()}. A statement evicted while an operation is
+ * running may still be in use by it, e.g. the statement saving a person while its address is saved, so it
+ * is only closed once the outermost operation has exited.
+ */
+final class StatementCache implements AutoCloseable {
+
+    private record Key(String sql, int resultSetType, int resultSetConcurrency, int autoGeneratedKeys) {}
+
+    /**
+     * A cached statement, and the statement {@link SlowQueryLog#trace(PreparedStatement, String) traced}
+     * once it was first handed out while tracing.
+     */
+    private static final class CachedStatement {
+        private final PreparedStatement statement;
+        private PreparedStatement traced;
+
+        private CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+    }
+
+    private final Connection connection;
+    private final int maxSize;
+    private final Map<Key, CachedStatement> statements;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private int activeOperations;
+    private final List<PreparedStatement> evictedInUse = new ArrayList<>();
+
+    StatementCache(Connection connection, int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Statement cache size must be at least 1 but was " + maxSize);
+        }
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedStatement> eldest) {
+                if (size() > StatementCache.this.maxSize) {
+                    evictions++;
+                    if (activeOperations > 0) {
+                        evictedInUse.add(eldest.getValue().statement);
+                    } else {
+                        closeQuietly(eldest.getValue().statement);
+                    }
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    PreparedStatement prepare(String sql) throws SQLException {
+        return prepare(new Key(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, Statement.NO_GENERATED_KEYS));
+    }
+
+    PreparedStatement prepare(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+        return prepare(new Key(sql, resultSetType, resultSetConcurrency, Statement.NO_GENERATED_KEYS));
+    }
+
+    PreparedStatement prepareReturningGeneratedKeys(String sql) throws SQLException {
+        return prepare(new Key(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, Statement.RETURN_GENERATED_KEYS));
+    }
+
+    private PreparedStatement prepare(Key key) throws SQLException {
+        if (connection.isClosed()) {
+            close();
+            throw new SQLException("Connection is closed");
+        }
+        CachedStatement cached = statements.get(key);
+        if (cached != null && !cached.statement.isClosed()) {
+            hits++;
+            return handOut(cached, key);
+        }
+        misses++;
+        cached = new CachedStatement(key.autoGeneratedKeys() == Statement.RETURN_GENERATED_KEYS
+                ? connection.prepareStatement(key.sql(), Statement.RETURN_GENERATED_KEYS)
+                : connection.prepareStatement(key.sql(), key.resultSetType(), key.resultSetConcurrency()));
+        statements.put(key, cached);
+        return handOut(cached, key);
+    }
+
+    /**
+     * @return The statement itself, or its traced statement while the {@link SlowQueryLog} or a flight recording needs it
+     */
+    private static PreparedStatement handOut(CachedStatement cached, Key key) {
+        if (!SlowQueryLog.isTracing()) {
+            return cached.statement;
+        }
+        if (cached.traced == null) {
+            cached.traced = SlowQueryLog.trace(cached.statement, key.sql());
+        }
+        return cached.traced;
+    }
+
+    /**
+     * Marks the start of an operation, which may be nested in another one.
+     */
+    void enter() {
+        activeOperations++;
+    }
+
+    /**
+     * Marks the end of an operation, closing the statements evicted during it once no operation is running.
+     */
+    void exit() {
+        if (--activeOperations == 0 && !evictedInUse.isEmpty()) {
+            List<PreparedStatement> evicted = new ArrayList<>(evictedInUse);
+            evictedInUse.clear();
+            evicted.forEach(StatementCache::closeQuietly);
+        }
+    }
+
+    Connection getConnection() {
+        return connection;
+    }
+
+    boolean isConnectionClosed() {
+        try {
+            return connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    StatementCacheStatistics getStatistics() {
+        return new StatementCacheStatistics(hits, misses, evictions, statements.size());
+    }
+
+    /**
+     * Closes every cached statement. The cache stays usable and re-prepares statements on demand.
+     */
+    @Override
+    public void close() {
+        List<PreparedStatement> cached = new ArrayList<>(statements.values().stream().map(statement -> statement.statement).toList());
+        statements.clear();
+        if (activeOperations == 0) {
+            cached.addAll(evictedInUse);
+            evictedInUse.clear();
+        }
+        cached.forEach(StatementCache::closeQuietly);
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.bright.peopledb.repository;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+/**
+ * @param hits the number of statements served from the cache
+ * @param misses the number of statements that had to be prepared
+ * @param evictions the number of statements closed to make room for others
+ * @param size the number of statements currently cached
+ */
+public record StatementCacheStatistics(long hits, long misses, long evictions, int size) {
+
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
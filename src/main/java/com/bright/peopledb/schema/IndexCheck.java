@@ -0,0 +1,29 @@
+package com.bright.peopledb.schema;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import java.util.List;
+
+/**
+ * Whether the plan of a hot query uses the indexes it was written for.
+ * @param query what the query is for
+ * @param indexedColumns the columns, as TABLE.COLUMN, whose indexes the plan should use
+ * @param unindexedColumns the columns for which the plan uses no index starting with the column
+ * @param plan the plan as reported by EXPLAIN
+ */
+public record IndexCheck(String query, List<String> indexedColumns, List<String> unindexedColumns, String plan) {
+
+    public IndexCheck {
+        indexedColumns = List.copyOf(indexedColumns);
+        unindexedColumns = List.copyOf(unindexedColumns);
+    }
+
+    public boolean usesIndexes() {
+        return unindexedColumns.isEmpty();
+    }
+}
@@ -0,0 +1,121 @@
+package com.bright.peopledb.schema;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import com.bright.peopledb.exception.DataException;
+import com.bright.peopledb.query.CompiledQuery;
+import com.bright.peopledb.query.PersonQuery;
+import com.bright.peopledb.repository.PersonRepository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Checks with EXPLAIN that the hot queries of the repositories use the indexes created by the migrations,
+ * e.g. after a migration or an upgrade of the database, before a missing index shows up as a full table scan
+ * in production. The queries are only planned, never run. Any index starting with the expected column counts,
+ * as the planner may pick an equivalent one, e.g. the index of a foreign key.
+ */
+public final class IndexVerifier {
+
+    private record HotQuery(String description, CompiledQuery compiledQuery, List<String> indexedColumns) {}
+
+    static final String FIND_INDEXES_SQL = """
+    SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS
+    WHERE TABLE_NAME = ? AND COLUMN_NAME = ? AND ORDINAL_POSITION = 1""";
+
+    private static final List<HotQuery> HOT_QUERIES = List.of(
+            new HotQuery("find a person with their children",
+                    new CompiledQuery(PersonRepository.FIND_BY_ID_SQL, List.of(1L)), List.of("PERSON.PARENT_ID")),
+            new HotQuery("find the children of a generation",
+                    new CompiledQuery(PersonRepository.FIND_CHILD_IDS_SQL, List.of((Object) new Long[]{1L})), List.of("PERSON.PARENT_ID")),
+            new HotQuery("find people by last name",
+                    PersonQuery.where(PersonQuery.lastName().eq("Smith")).compile(PersonRepository.QUERY_IDS_SQL), List.of("PERSON.LAST_NAME")),
+            new HotQuery("find people by last name prefix",
+                    PersonQuery.where(PersonQuery.lastName().startsWith("Sm")).compile(PersonRepository.QUERY_IDS_SQL), List.of("PERSON.LAST_NAME")),
+            new HotQuery("find people by email",
+                    new CompiledQuery(PersonRepository.FIND_IDS_BY_EMAIL_SQL, List.of((Object) new String[]{"someone@example.com"})), List.of("PERSON.EMAIL")),
+            new HotQuery("find orphaned addresses",
+                    new CompiledQuery(PersonRepository.FIND_ORPHANED_ADDRESS_IDS_SQL, List.of((Object) new Long[]{1L})),
+                    List.of("PERSON.HOME_ADDRESS", "PERSON.BUSINESS_ADDRESS")));
+
+    private final Connection connection;
+
+    public IndexVerifier(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * @return The result for each hot query
+     */
+    public List<IndexCheck> check() {
+        List<IndexCheck> checks = new ArrayList<>();
+        for (HotQuery hotQuery : HOT_QUERIES) {
+            String plan = explain(hotQuery.compiledQuery());
+            List<String> unindexedColumns = hotQuery.indexedColumns().stream()
+                    .filter(column -> findIndexes(column).stream().noneMatch(index -> plan.contains("." + index + ":")))
+                    .toList();
+            checks.add(new IndexCheck(hotQuery.description(), hotQuery.indexedColumns(), unindexedColumns, plan));
+        }
+        return checks;
+    }
+
+    /**
+     * @throws DataException naming the queries that do not use their indexes, with their plans
+     */
+    public void verify() {
+        List<IndexCheck> failedChecks = check().stream().filter(check -> !check.usesIndexes()).toList();
+        if (!failedChecks.isEmpty()) {
+            throw new DataException(failedChecks.stream()
+                    .map(check -> "Query to %s uses no index on %s:%n%s".formatted(check.query(), check.unindexedColumns(), check.plan()))
+                    .collect(joining(System.lineSeparator(), "Hot queries are missing indexes" + System.lineSeparator(), "")));
+        }
+    }
+
+    /**
+     * @param column the column as TABLE.COLUMN
+     * @return The names of the indexes whose first column is the column
+     */
+    private List<String> findIndexes(String column) {
+        String[] tableAndColumn = column.split("\\.");
+        try (PreparedStatement preparedStatement = connection.prepareStatement(FIND_INDEXES_SQL)) {
+            preparedStatement.setString(1, tableAndColumn[0]);
+            preparedStatement.setString(2, tableAndColumn[1]);
+            List<String> indexes = new ArrayList<>();
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    indexes.add(resultSet.getString(1));
+                }
+            }
+            return indexes;
+        } catch (SQLException e) {
+            throw new DataException("Unable to find the indexes on " + column, e);
+        }
+    }
+
+    private String explain(CompiledQuery compiledQuery) {
+        try (PreparedStatement preparedStatement = connection.prepareStatement("EXPLAIN " + compiledQuery.sql())) {
+            compiledQuery.bind(preparedStatement);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append(System.lineSeparator());
+                }
+                return plan.toString();
+            }
+        } catch (SQLException e) {
+            throw new DataException("Unable to explain " + compiledQuery.sql(), e);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.bright.peopledb.schema;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import com.bright.peopledb.exception.DataException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Brings the schema of the people database up to date at startup.
+ * <p>
+ * The migrations are SQL scripts on the classpath named V&lt;version&gt;__&lt;description&gt;.sql. Each one
+ * not yet recorded in the SCHEMA_VERSION table is run in version order, in its own transaction, and
+ * then recorded with a checksum of its script. A recorded script that has since been changed is an error.
+ * The scripts only use IF NOT EXISTS DDL, so they also bring databases created before the migrations up to date.
+ */
+public final class MigrationRunner {
+
+    public static final String DEFAULT_LOCATION = "db/migration";
+    public static final List<String> DEFAULT_SCRIPTS = List.of(
+            "V1__create_tables.sql",
+            "V2__create_indexes_and_constraints.sql");
+
+    static final String CREATE_VERSION_TABLE_SQL = """
+    CREATE TABLE IF NOT EXISTS SCHEMA_VERSION(
+    VERSION INT PRIMARY KEY, DESCRIPTION VARCHAR(255) NOT NULL, CHECKSUM BIGINT NOT NULL,
+    INSTALLED_ON TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL)""";
+    static final String FIND_VERSIONS_SQL = "SELECT VERSION, CHECKSUM FROM SCHEMA_VERSION";
+    static final String RECORD_VERSION_SQL = "INSERT INTO SCHEMA_VERSION (VERSION, DESCRIPTION, CHECKSUM) VALUES(?, ?, ?)";
+
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final Pattern STATEMENT_END = Pattern.compile(";\\s*(?:\\R|$)");
+
+    private record Migration(int version, String description, String script, long checksum) {}
+
+    private final Connection connection;
+    private final List<Migration> migrations;
+
+    public MigrationRunner(Connection connection) {
+        this(connection, DEFAULT_LOCATION, DEFAULT_SCRIPTS);
+    }
+
+    /**
+     * @param location the classpath directory of the scripts
+     * @param scripts the names of the scripts, in any order
+     */
+    public MigrationRunner(Connection connection, String location, List<String> scripts) {
+        this.connection = connection;
+        this.migrations = scripts.stream()
+                .map(script -> load(location, script))
+                .sorted((first, second) -> Integer.compare(first.version(), second.version()))
+                .toList();
+    }
+
+    /**
+     * Runs the migrations that have not been applied yet.
+     * @return The versions applied by this call, in order
+     */
+    public List<Integer> migrate() {
+        List<Integer> applied = new ArrayList<>();
+        boolean autoCommit = true;
+        try {
+            autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            createVersionTable();
+            connection.commit();
+            Map<Integer, Long> checksums = findAppliedChecksums();
+            for (Migration migration : migrations) {
+                Long checksum = checksums.get(migration.version());
+                if (Objects.isNull(checksum)) {
+                    apply(migration);
+                    applied.add(migration.version());
+                } else if (checksum != migration.checksum()) {
+                    throw new DataException("Migration V%d__%s has changed since it was applied"
+                            .formatted(migration.version(), migration.description()));
+                }
+            }
+            return applied;
+        } catch (SQLException e) {
+            rollback();
+            throw new DataException("Unable to migrate the schema after applying " + applied, e);
+        } catch (RuntimeException e) {
+            rollback();
+            throw e;
+        } finally {
+            restoreAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * @return The highest version applied, or 0 if none has been
+     */
+    public int getCurrentVersion() {
+        try {
+            createVersionTable();
+            return findAppliedChecksums().keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+        } catch (SQLException e) {
+            throw new DataException("Unable to read the schema version", e);
+        }
+    }
+
+    private void createVersionTable() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_VERSION_TABLE_SQL);
+        }
+    }
+
+    private void apply(Migration migration) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : STATEMENT_END.split(migration.script())) {
+                if (!stripComments(sql).isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+        }
+        try (PreparedStatement preparedStatement = connection.prepareStatement(RECORD_VERSION_SQL)) {
+            preparedStatement.setInt(1, migration.version());
+            preparedStatement.setString(2, migration.description().replace('_', ' '));
+            preparedStatement.setLong(3, migration.checksum());
+            preparedStatement.executeUpdate();
+        }
+        connection.commit();
+    }
+
+    private Map<Integer, Long> findAppliedChecksums() throws SQLException {
+        Map<Integer, Long> checksums = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(FIND_VERSIONS_SQL)) {
+            while (resultSet.next()) {
+                checksums.put(resultSet.getInt("VERSION"), resultSet.getLong("CHECKSUM"));
+            }
+        }
+        return checksums;
+    }
+
+    private static Migration load(String location, String scriptName) {
+        Matcher matcher = SCRIPT_NAME.matcher(scriptName);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Migration scripts must be named V<version>__<description>.sql but was " + scriptName);
+        }
+        String path = location + "/" + scriptName;
+        try (InputStream inputStream = MigrationRunner.class.getClassLoader().getResourceAsStream(path)) {
+            if (Objects.isNull(inputStream)) {
+                throw new DataException("Migration script " + path + " not found on the classpath");
+            }
+            String script = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+            CRC32 checksum = new CRC32();
+            checksum.update(script.getBytes(StandardCharsets.UTF_8));
+            return new Migration(Integer.parseInt(matcher.group(1)), matcher.group(2), script, checksum.getValue());
+        } catch (IOException e) {
+            throw new DataException("Unable to read migration script " + path, e);
+        }
+    }
+
+    private static String stripComments(String sql) {
+        return sql.lines().filter(line -> !line.strip().startsWith("--")).reduce("", String::concat);
+    }
+
+    private void rollback() {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void restoreAutoCommit(boolean autoCommit) {
+        try {
+            connection.setAutoCommit(autoCommit);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+}
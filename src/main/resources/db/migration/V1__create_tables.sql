@@ -0,0 +1,26 @@
+-- The tables of the people database. Databases created before the migrations existed already have them.
+CREATE TABLE IF NOT EXISTS ADDRESSES(
+    ID BIGINT AUTO_INCREMENT PRIMARY KEY,
+    STREET_ADDRESS VARCHAR(255),
+    ADDRESS2 VARCHAR(255),
+    CITY VARCHAR(255),
+    STATE VARCHAR(255),
+    POSTCODE VARCHAR(255),
+    COUNTY VARCHAR(255),
+    REGION VARCHAR(255),
+    COUNTRY VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS PERSON(
+    ID BIGINT AUTO_INCREMENT PRIMARY KEY,
+    FIRST_NAME VARCHAR(255),
+    LAST_NAME VARCHAR(255),
+    DOB TIMESTAMP,
+    SALARY DECIMAL(15,2) DEFAULT 0,
+    HOME_ADDRESS BIGINT,
+    BUSINESS_ADDRESS BIGINT,
+    PARENT_ID BIGINT
+);
+
+-- Formerly added by PersonRepository.alterTable()
+ALTER TABLE PERSON ADD COLUMN IF NOT EXISTS EMAIL VARCHAR(255);
@@ -0,0 +1,14 @@
+-- The indexes are created before the foreign keys, so the foreign keys use them instead of creating their own.
+-- PARENT_ID serves the CHILD join of FIND_BY_ID_SQL and the generation queries of saves and cascading deletes.
+CREATE INDEX IF NOT EXISTS IDX_PERSON_PARENT_ID ON PERSON(PARENT_ID);
+-- HOME_ADDRESS and BUSINESS_ADDRESS serve the check for orphaned addresses.
+CREATE INDEX IF NOT EXISTS IDX_PERSON_HOME_ADDRESS ON PERSON(HOME_ADDRESS);
+CREATE INDEX IF NOT EXISTS IDX_PERSON_BUSINESS_ADDRESS ON PERSON(BUSINESS_ADDRESS);
+-- LAST_NAME serves equality and prefix criteria of PersonQuery.
+CREATE INDEX IF NOT EXISTS IDX_PERSON_LAST_NAME ON PERSON(LAST_NAME);
+-- EMAIL serves upserts by email.
+CREATE INDEX IF NOT EXISTS IDX_PERSON_EMAIL ON PERSON(EMAIL);
+
+ALTER TABLE PERSON ADD CONSTRAINT IF NOT EXISTS FK_PERSON_PARENT FOREIGN KEY (PARENT_ID) REFERENCES PERSON(ID);
+ALTER TABLE PERSON ADD CONSTRAINT IF NOT EXISTS FK_PERSON_HOME_ADDRESS FOREIGN KEY (HOME_ADDRESS) REFERENCES ADDRESSES(ID);
+ALTER TABLE PERSON ADD CONSTRAINT IF NOT EXISTS FK_PERSON_BUSINESS_ADDRESS FOREIGN KEY (BUSINESS_ADDRESS) REFERENCES ADDRESSES(ID);
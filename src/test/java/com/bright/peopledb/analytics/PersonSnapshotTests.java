@@ -0,0 +1,107 @@
+package com.bright.peopledb.analytics;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import com.bright.peopledb.enums.SnapshotColumn;
+import com.bright.peopledb.model.Person;
+import com.bright.peopledb.repository.PersonRepository;
+import com.bright.peopledb.schema.MigrationRunner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersonSnapshotTests {
+
+    private Connection connection;
+    private PersonRepository repository;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:" + UUID.randomUUID());
+        new MigrationRunner(connection).migrate();
+        repository = new PersonRepository(connection);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    @DisplayName("Filters and aggregates the columns read from PERSON")
+    void filtersAndAggregates() throws SQLException {
+        List<Person> people = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            Person person = new Person("First" + i % 10, i % 2 == 0 ? "Even" : "Odd", ZonedDateTime.of(1950 + i % 50, 1, 1, 0, 0, 0, 0, ZoneId.of("+0")));
+            person.setSalary(new BigDecimal(i).add(new BigDecimal("0.25")));
+            people.add(person);
+        }
+        repository.saveAll(people);
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO PERSON (FIRST_NAME, SALARY) VALUES('Nobody', NULL)");
+        }
+
+        PersonSnapshot snapshot = PersonSnapshot.load(connection, 100);
+
+        assertThat(snapshot.size()).isEqualTo(2_001);
+        assertThat(snapshot.distinctNames()).isEqualTo(13);
+        assertThat(snapshot.offHeapBytes()).isPositive();
+        assertThat(snapshot.get(SnapshotColumn.DATE_OF_BIRTH, 0)).isEqualTo(ZonedDateTime.of(1950, 1, 1, 0, 0, 0, 0, ZoneId.of("+0")).toEpochSecond());
+        assertThat(snapshot.get(SnapshotColumn.SALARY_CENTS, 3)).isEqualTo(325);
+        assertThat(snapshot.get(SnapshotColumn.SALARY_CENTS, 2_000)).isEqualTo(PersonSnapshot.NULL_VALUE);
+        assertThat(snapshot.getLastName(2_000)).isNull();
+
+        ColumnStatistics salaries = snapshot.statistics(SnapshotColumn.SALARY_CENTS, snapshot.all());
+        assertThat(salaries.count()).isEqualTo(2_000);
+        assertThat(salaries.min()).isEqualTo(25);
+        assertThat(salaries.max()).isEqualTo(199_925);
+        assertThat(salaries.sum()).isEqualTo(1_999L * 2_000 / 2 * 100 + 2_000 * 25);
+
+        BitSet evenAndBornInThe1950s = snapshot.lastNameEquals("Even");
+        evenAndBornInThe1950s.and(snapshot.between(SnapshotColumn.DATE_OF_BIRTH,
+                ZonedDateTime.of(1950, 1, 1, 0, 0, 0, 0, ZoneId.of("+0")).toEpochSecond(),
+                ZonedDateTime.of(1959, 12, 31, 0, 0, 0, 0, ZoneId.of("+0")).toEpochSecond()));
+        assertThat(evenAndBornInThe1950s.cardinality()).isEqualTo(200);
+        assertThat(snapshot.statistics(SnapshotColumn.SALARY_CENTS, evenAndBornInThe1950s).max()).isEqualTo(195_825);
+        assertThat(snapshot.ids(snapshot.firstNameEquals("Nobody"))).containsExactly(snapshot.getHighWaterMark());
+        assertThat(snapshot.lastNameEquals("Missing").isEmpty()).isTrue();
+        assertThat(snapshot.statistics(SnapshotColumn.SALARY_CENTS, new BitSet()).average()).isNaN();
+    }
+
+    @Test
+    @DisplayName("Appends only the rows inserted since the last refresh")
+    void refreshesFromHighWaterMark() {
+        repository.save(new Person("Ada", "Lovelace", ZonedDateTime.of(1815, 12, 10, 0, 0, 0, 0, ZoneId.of("+0"))));
+        PersonSnapshot snapshot = PersonSnapshot.load(connection);
+        long highWaterMark = snapshot.getHighWaterMark();
+
+        assertThat(snapshot.refresh()).isZero();
+        Person grace = repository.save(new Person("Grace", "Hopper", ZonedDateTime.of(1906, 12, 9, 0, 0, 0, 0, ZoneId.of("+0"))));
+
+        assertThat(snapshot.refresh()).isEqualTo(1);
+        assertThat(snapshot.getHighWaterMark()).isEqualTo(grace.getId()).isGreaterThan(highWaterMark);
+        assertThat(snapshot.size()).isEqualTo(2);
+        assertThat(snapshot.getFirstName(1)).isEqualTo("Grace");
+        assertThat(snapshot.get(SnapshotColumn.DATE_OF_BIRTH, 0)).isNegative();
+    }
+}
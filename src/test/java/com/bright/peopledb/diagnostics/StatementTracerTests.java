@@ -0,0 +1,34 @@
+package com.bright.peopledb.diagnostics;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import com.bright.peopledb.repository.PersonRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatementTracerTests {
+
+    @Test
+    @DisplayName("Tells the columns of the parameters of an INSERT")
+    void findsInsertColumns() {
+        assertThat(StatementTracer.parameterColumns(PersonRepository.SAVE_PERSON_SQL))
+                .containsExactly("FIRST_NAME", "LAST_NAME", "DOB", "SALARY", "EMAIL", "HOME_ADDRESS", "BUSINESS_ADDRESS", "PARENT_ID");
+    }
+
+    @Test
+    @DisplayName("Tells the columns compared with the parameters of an UPDATE or SELECT")
+    void findsComparedColumns() {
+        assertThat(StatementTracer.parameterColumns("UPDATE PERSON SET SALARY=?, EMAIL = ? WHERE ID=?"))
+                .containsExactly("SALARY", "EMAIL", "ID");
+        assertThat(StatementTracer.parameterColumns(PersonRepository.FIND_BY_IDS_SQL)).containsExactly("ID");
+        assertThat(StatementTracer.parameterColumns("SELECT * FROM PERSON WHERE LOWER(EMAIL) = ? AND P.SALARY > ?"))
+                .containsExactly(null, "SALARY");
+    }
+}
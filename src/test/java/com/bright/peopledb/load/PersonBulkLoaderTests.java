@@ -0,0 +1,194 @@
+package com.bright.peopledb.load;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import com.bright.peopledb.exception.DataException;
+import com.bright.peopledb.model.Person;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PersonBulkLoaderTests {
+
+    private static final String HEADER = "Emp ID,Name Prefix,First Name,Middle Initial,Last Name,Gender,E Mail,Father's Name,Mother's Name,Mother's Maiden Name,Date of Birth,Time of Birth,Age in Yrs.,Weight in Kgs.,Date of Joining,Quarter of Joining,Half of Joining,Year of Joining,Month of Joining,Month Name of Joining,Short Month,Day of Joining,DOW of Joining,Short DOW,Age in Company (Years),Salary,Last % Hike";
+
+    @TempDir
+    Path tempDir;
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:bulkloader;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                CREATE TABLE ADDRESSES(ID BIGINT AUTO_INCREMENT PRIMARY KEY, STREET_ADDRESS VARCHAR(255), ADDRESS2 VARCHAR(255),
+                CITY VARCHAR(255), STATE VARCHAR(255), POSTCODE VARCHAR(255), COUNTY VARCHAR(255), REGION VARCHAR(255), COUNTRY VARCHAR(255))""");
+            statement.execute("""
+                CREATE TABLE PERSON(ID BIGINT AUTO_INCREMENT PRIMARY KEY, FIRST_NAME VARCHAR(255), LAST_NAME VARCHAR(255), DOB TIMESTAMP,
+                SALARY DECIMAL(15,2), EMAIL VARCHAR(255), HOME_ADDRESS BIGINT, BUSINESS_ADDRESS BIGINT, PARENT_ID BIGINT)""");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Test
+    @DisplayName("Can parse a row of the HR export")
+    void canParseRow() {
+        Person person = new HrCsvParser().parse(row(1));
+        assertThat(person.getFirstName()).isEqualTo("First1");
+        assertThat(person.getLastName()).isEqualTo("Last1");
+        assertThat(person.getEmail()).isEqualTo("person1@example.com");
+        assertThat(person.getSalary()).isEqualByComparingTo(new BigDecimal("50001"));
+        assertThat(person.getDateOfBirth()).isEqualTo(ZonedDateTime.of(1966, 3, 14, 15, 9, 26, 0, ZoneId.of("+0")));
+    }
+
+    @Test
+    @DisplayName("Rejects a row with missing columns")
+    void rejectsShortRow() {
+        assertThatThrownBy(() -> new HrCsvParser().parse("1,Mr.,First,A,Last"))
+                .isInstanceOf(DataException.class);
+    }
+
+    @Test
+    @DisplayName("Reports the row of a value that cannot be parsed")
+    void rejectsRowWithInvalidValue() {
+        String row = row(1).replace("50001", "fifty thousand");
+        assertThatThrownBy(() -> new HrCsvParser().parse(row))
+                .isInstanceOf(DataException.class)
+                .hasMessageContaining(row)
+                .hasCauseInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    @DisplayName("Can load a CSV file with progress reports")
+    void canLoadCsv() throws IOException, SQLException {
+        Path csvFile = writeCsv(tempDir.resolve("people.csv"), 1, 250, false);
+        List<LoadProgress> progress = new ArrayList<>();
+        LoadProgress result = new PersonBulkLoader(connection)
+                .withChunkSize(20)
+                .withBatchSize(15)
+                .withCommitInterval(100)
+                .withParserThreads(3)
+                .withQueueCapacity(2)
+                .withProgressListener(progress::add)
+                .load(csvFile);
+
+        assertThat(result.rowsCommitted()).isEqualTo(250);
+        assertThat(progress).extracting(LoadProgress::rowsCommitted).containsExactly(100L, 200L, 250L);
+        assertThat(countPeople()).isEqualTo(250);
+        assertThat(lastNames()).startsWith("Last1", "Last2", "Last3").endsWith("Last250");
+    }
+
+    @Test
+    @DisplayName("Can load a gzip compressed CSV file")
+    void canLoadGzipCsv() throws IOException, SQLException {
+        Path csvFile = writeCsv(tempDir.resolve("people.csv.gz"), 1, 42, true);
+        LoadProgress result = new PersonBulkLoader(connection).withChunkSize(10).load(csvFile);
+        assertThat(result.rowsCommitted()).isEqualTo(42);
+        assertThat(countPeople()).isEqualTo(42);
+    }
+
+    @Test
+    @DisplayName("Resumes a load from its checkpoint")
+    void canResumeFromCheckpoint() throws IOException, SQLException {
+        Path csvFile = writeCsv(tempDir.resolve("people.csv"), 1, 30, false);
+        LoadCheckpoint checkpoint = new LoadCheckpoint(tempDir.resolve("people.checkpoint"));
+        checkpoint.write(20);
+
+        LoadProgress result = new PersonBulkLoader(connection).withCheckpoint(checkpoint).load(csvFile);
+
+        assertThat(result.rowsCommitted()).isEqualTo(30);
+        assertThat(result.rowsThisRun()).isEqualTo(10);
+        assertThat(lastNames()).containsExactly("Last21", "Last22", "Last23", "Last24", "Last25", "Last26", "Last27", "Last28", "Last29", "Last30");
+        assertThat(checkpoint.read()).isZero();
+    }
+
+    @Test
+    @DisplayName("Rolls back the uncommitted rows and keeps the checkpoint when a row is invalid")
+    void keepsCheckpointOnFailure() throws IOException, SQLException {
+        Path csvFile = writeCsv(tempDir.resolve("people.csv"), 1, 30, false);
+        Files.writeString(csvFile, "broken row\n", StandardOpenOption.APPEND);
+        LoadCheckpoint checkpoint = new LoadCheckpoint(tempDir.resolve("people.checkpoint"));
+
+        PersonBulkLoader loader = new PersonBulkLoader(connection)
+                .withChunkSize(10)
+                .withCommitInterval(10)
+                .withCheckpoint(checkpoint);
+        assertThatThrownBy(() -> loader.load(csvFile)).isInstanceOf(DataException.class)
+                .hasMessageContaining("line 32").hasMessageContaining("broken row");
+
+        assertThat(checkpoint.read()).isEqualTo(30);
+        assertThat(countPeople()).isEqualTo(30);
+    }
+
+    private long countPeople() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM PERSON")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private List<String> lastNames() throws SQLException {
+        List<String> lastNames = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT LAST_NAME FROM PERSON ORDER BY ID")) {
+            while (resultSet.next()) {
+                lastNames.add(resultSet.getString(1));
+            }
+        }
+        return lastNames;
+    }
+
+    private static Path writeCsv(Path file, int from, int to, boolean gzip) throws IOException {
+        try (OutputStream outputStream = gzip ? new GZIPOutputStream(Files.newOutputStream(file)) : Files.newOutputStream(file);
+             Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)) {
+            writer.write(HEADER + "\n");
+            for (int i = from; i <= to; i++) {
+                writer.write(row(i) + "\n");
+            }
+        }
+        return file;
+    }
+
+    private static String row(int i) {
+        return "%d,Mr.,First%d,A,Last%d,M,person%d@example.com,Father,Mother,Maiden,3/14/1966,03:09:26 PM,56.5,60,9/1/2000,Q3,H2,2000,9,September,Sep,1,Friday,Fri,16.89,%d,2%%"
+                .formatted(i, i, i, i, 50000 + i);
+    }
+}
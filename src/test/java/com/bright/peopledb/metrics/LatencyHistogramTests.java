@@ -0,0 +1,72 @@
+package com.bright.peopledb.metrics;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTests {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    @DisplayName("Reports percentiles within the bucket precision")
+    void reportsPercentiles() {
+        LongStream.rangeClosed(1, 100_000).forEach(micros -> histogram.record(micros * 1_000));
+
+        assertThat(histogram.getCount()).isEqualTo(100_000);
+        assertThat(histogram.getValueAtPercentile(50)).isCloseTo(50_000_000L, within(50_000_000L / 32));
+        assertThat(histogram.getValueAtPercentile(99)).isCloseTo(99_000_000L, within(99_000_000L / 32));
+        assertThat(histogram.getValueAtPercentile(99.9)).isCloseTo(99_900_000L, within(99_900_000L / 32));
+        assertThat(histogram.getValueAtPercentile(100)).isGreaterThanOrEqualTo(100_000_000L);
+    }
+
+    @Test
+    @DisplayName("Every value falls into a bucket whose range contains it")
+    void bucketsContainTheirValues() {
+        IntStream.range(0, 62).forEach(bit -> {
+            long value = (1L << bit) + bit;
+            int index = LatencyHistogram.indexOf(value);
+            assertThat(LatencyHistogram.highestValueAt(index)).isGreaterThanOrEqualTo(value);
+            assertThat(index == 0 || LatencyHistogram.highestValueAt(index - 1) < value).isTrue();
+        });
+        assertThat(LatencyHistogram.indexOf(Long.MAX_VALUE)).isLessThan(64 * 32);
+    }
+
+    @Test
+    @DisplayName("Counts every value recorded by concurrent threads")
+    void countsConcurrentRecords() throws InterruptedException {
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> LongStream.rangeClosed(1, 100_000).forEach(histogram::record));
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(800_000);
+        assertThat(histogram.getValueAtPercentile(50)).isCloseTo(50_000L, within(50_000L / 32));
+        histogram.reset();
+        assertThat(histogram.getCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Reports zero when nothing was recorded")
+    void reportsZeroWhenEmpty() {
+        histogram.record(42);
+        histogram.reset();
+        assertThat(histogram.getValueAtPercentile(99)).isZero();
+    }
+}
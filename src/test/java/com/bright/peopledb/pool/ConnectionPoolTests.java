@@ -0,0 +1,99 @@
+package com.bright.peopledb.pool;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConnectionPoolTests {
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        pool = new ConnectionPool("jdbc:h2:mem:pooltest;DB_CLOSE_DELAY=-1", 1, 2, Duration.ofMillis(200));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("Opens the minimum number of connections up front")
+    void opensMinimumConnections() {
+        assertThat(pool.getOpenCount()).isEqualTo(1);
+        assertThat(pool.getIdleCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Reuses a connection once it has been returned")
+    void reusesReturnedConnection() throws SQLException {
+        Connection first = pool.getConnection();
+        first.close();
+        Connection second = pool.getConnection();
+        assertThat(second).isSameAs(first);
+        assertThat(pool.getActiveCount()).isEqualTo(1);
+        second.close();
+        assertThat(pool.getActiveCount()).isZero();
+        assertThat(pool.getOpenCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Times out when every connection is borrowed")
+    void timesOutWhenExhausted() throws SQLException {
+        try (Connection first = pool.getConnection(); Connection second = pool.getConnection()) {
+            assertThat(second).isNotSameAs(first);
+            assertThatThrownBy(pool::getConnection).isInstanceOf(SQLTimeoutException.class);
+        }
+        assertThat(pool.getActiveCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Rejects use of a connection after it has been returned")
+    void rejectsUseAfterReturn() throws SQLException {
+        Connection connection = pool.getConnection();
+        connection.close();
+        assertThat(connection.isClosed()).isTrue();
+        assertThatThrownBy(connection::createStatement).isInstanceOf(SQLException.class);
+    }
+
+    @Test
+    @DisplayName("Rolls back uncommitted work and restores auto-commit on return")
+    void resetsConnectionOnReturn() throws SQLException {
+        Connection connection = pool.getConnection();
+        connection.setAutoCommit(false);
+        connection.close();
+        try (Connection again = pool.getConnection()) {
+            assertThat(again.getAutoCommit()).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Replaces an idle connection that is no longer valid")
+    void replacesInvalidConnection() throws SQLException {
+        Connection connection = pool.getConnection();
+        connection.unwrap(Connection.class).close();
+        connection.close();
+        try (Connection replacement = pool.getConnection()) {
+            assertThat(replacement.isValid(1)).isTrue();
+            assertThat(replacement).isNotSameAs(connection);
+        }
+        assertThat(pool.getOpenCount()).isEqualTo(1);
+    }
+}
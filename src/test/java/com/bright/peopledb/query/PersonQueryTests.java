@@ -0,0 +1,67 @@
+package com.bright.peopledb.query;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import com.bright.peopledb.enums.Region;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.bright.peopledb.query.PersonQuery.lastName;
+import static com.bright.peopledb.query.PersonQuery.region;
+import static com.bright.peopledb.query.PersonQuery.salary;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersonQueryTests {
+
+    private static final String BASE_SQL = "SELECT PARENT.ID FROM PERSON AS PARENT LEFT OUTER JOIN ADDRESSES AS HOME ON PARENT.HOME_ADDRESS = HOME.ID";
+
+    @Test
+    @DisplayName("Compiles criteria, ordering and limit to parameterised SQL")
+    void compilesToParameterisedSql() {
+        CompiledQuery compiledQuery = PersonQuery.where(lastName().eq("Smith"))
+                .and(salary().between(new BigDecimal("50000"), new BigDecimal("90000")))
+                .orderBy(salary().desc(), lastName().asc())
+                .limit(10)
+                .compile(BASE_SQL);
+
+        assertThat(compiledQuery.sql()).isEqualTo(BASE_SQL + """
+
+                WHERE (PARENT.LAST_NAME = ?) AND ((PARENT.SALARY >= ?) AND (PARENT.SALARY <= ?))
+                ORDER BY PARENT.SALARY DESC, PARENT.LAST_NAME ASC
+                FETCH FIRST ? ROWS ONLY""");
+        assertThat(compiledQuery.parameters()).containsExactly("Smith", new BigDecimal("50000"), new BigDecimal("90000"), 10);
+    }
+
+    @Test
+    @DisplayName("Queries of the same shape share their compiled SQL")
+    void cachesCompiledShapes() {
+        CompiledQuery first = PersonQuery.where(region().eq(Region.WEST)).compile(BASE_SQL);
+        long missesBefore = PersonQuery.shapeCache().getMisses();
+        CompiledQuery second = PersonQuery.where(region().eq(Region.EAST)).compile(BASE_SQL);
+        CompiledQuery third = PersonQuery.where(region().in(List.of(Region.EAST, Region.NORTH, Region.SOUTH))).compile(BASE_SQL);
+        CompiledQuery fourth = PersonQuery.where(region().in(List.of(Region.WEST))).compile(BASE_SQL);
+
+        assertThat(second.sql()).isSameAs(first.sql());
+        assertThat(fourth.sql()).isSameAs(third.sql());
+        assertThat(PersonQuery.shapeCache().getMisses()).isEqualTo(missesBefore + 1);
+        assertThat(second.parameters()).containsExactly("EAST");
+        assertThat(third.parameters()).hasSize(1).first().isInstanceOf(Object[].class);
+    }
+
+    @Test
+    @DisplayName("Escapes the wildcards of a prefix")
+    void escapesPrefixWildcards() {
+        CompiledQuery compiledQuery = PersonQuery.where(lastName().startsWith("O_Br%")).compile(BASE_SQL);
+
+        assertThat(compiledQuery.sql()).endsWith("WHERE PARENT.LAST_NAME LIKE ? ESCAPE '\\'");
+        assertThat(compiledQuery.parameters()).containsExactly("O\\_Br\\%%");
+    }
+}
@@ -0,0 +1,44 @@
+package com.bright.peopledb.repository;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongRangeIndexTests {
+
+    private final LongRangeIndex index = new LongRangeIndex();
+
+    @Test
+    @DisplayName("Finds the ids of an inclusive key range in key order after a bulk load")
+    void findsRangeAfterLoad() {
+        index.load(new long[]{50, 10, 30, 30, 20, 40}, new long[]{5, 1, 4, 3, 2, 6}, 6);
+
+        assertThat(index.size()).isEqualTo(6);
+        assertThat(index.idsBetween(20, 40)).containsExactly(2, 3, 4, 6);
+        assertThat(index.idsBetween(Long.MIN_VALUE, Long.MAX_VALUE)).containsExactly(1, 2, 3, 4, 6, 5);
+        assertThat(index.idsBetween(31, 39)).isEmpty();
+        assertThat(index.idsBetween(40, 20)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Keeps the keys sorted as entries are added and removed")
+    void addsAndRemovesEntries() {
+        for (long id = 1; id <= 100; id++) {
+            index.add((id * 37) % 101, id);
+        }
+        index.remove((7 * 37) % 101, 7);
+        index.remove(1_000, 1);
+
+        assertThat(index.size()).isEqualTo(99);
+        assertThat(index.idsBetween(0, 100)).hasSize(99).doesNotContain(7);
+        assertThat(index.idsBetween((8 * 37) % 101, (8 * 37) % 101)).containsExactly(8);
+    }
+}
@@ -0,0 +1,61 @@
+package com.bright.peopledb.repository;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LruEntityCacheTests {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final LruEntityCache<String> cache = new LruEntityCache<>(2, Duration.ofSeconds(10), clock::get);
+
+    @Test
+    @DisplayName("Evicts the least recently used entity once full")
+    void evictsLeastRecentlyUsedEntity() {
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+        cache.get(1L);
+        cache.put(3L, "three");
+
+        assertThat(cache.get(2L)).isNull();
+        assertThat(cache.get(1L)).isEqualTo("one");
+        assertThat(cache.get(3L)).isEqualTo("three");
+        assertThat(cache.getStatistics()).isEqualTo(new EntityCacheStatistics(3, 1, 1, 0, 2));
+    }
+
+    @Test
+    @DisplayName("Expires entities after their time to live")
+    void expiresEntities() {
+        cache.put(1L, "one");
+        clock.addAndGet(Duration.ofSeconds(9).toNanos());
+        assertThat(cache.get(1L)).isEqualTo("one");
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.getStatistics().expirations()).isEqualTo(1);
+        assertThat(cache.getStatistics().size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Invalidates single entities and the whole cache")
+    void invalidatesEntities() {
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+
+        cache.invalidate(1L);
+        assertThat(cache.get(1L)).isNull();
+        cache.invalidateAll();
+        assertThat(cache.getStatistics().size()).isZero();
+    }
+}
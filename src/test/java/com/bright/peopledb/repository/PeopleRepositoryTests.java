@@ -7,36 +7,78 @@ package com.bright.peopledb.repository;
  */
 
 
+import com.bright.peopledb.diagnostics.SlowQueryLog;
+import com.bright.peopledb.enums.FetchMode;
+import com.bright.peopledb.enums.PersonGrouping;
 import com.bright.peopledb.enums.Region;
+import com.bright.peopledb.exception.DataException;
+import com.bright.peopledb.load.LoadCheckpoint;
+import com.bright.peopledb.metrics.OperationStatistics;
+import com.bright.peopledb.load.LoadProgress;
+import com.bright.peopledb.load.PersonBulkLoader;
 import com.bright.peopledb.model.Address;
+import com.bright.peopledb.model.Page;
 import com.bright.peopledb.model.Person;
+import com.bright.peopledb.model.UpsertResult;
+import com.bright.peopledb.pool.ConnectionPool;
+import com.bright.peopledb.query.CompiledQuery;
+import com.bright.peopledb.query.PersonQuery;
+import com.bright.peopledb.schema.MigrationRunner;
 import com.github.javafaker.Faker;
 import com.github.javafaker.Name;
 import com.github.javafaker.Number;
 import org.junit.jupiter.api.*;
 
-import java.io.IOException;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.time.*;
-import java.time.format.DateTimeFormatter;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static com.bright.peopledb.utilities.RandomAddress.getRandomAddress;
 import static com.bright.peopledb.utilities.RandomChild.getRandomChild;
 import static java.util.stream.Collectors.toSet;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
 class PeopleRepositoryTests {
 
+    private static final String DATABASE_URL = "jdbc:h2:~/peopletest;TRACE_LEVEL_SYSTEM_OUT=0".replace("~", System.getProperty("user.home"));
+
     private final Name name = new Faker().name();
     private final Number number = new Faker().number();
     private Connection connection;
@@ -46,7 +88,7 @@ class PeopleRepositoryTests {
 
     @BeforeEach
     void setUp() throws SQLException {
-        connection = DriverManager.getConnection("jdbc:h2:~/peopletest;TRACE_LEVEL_SYSTEM_OUT=0".replace("~", System.getProperty("user.home")));
+        connection = DriverManager.getConnection(DATABASE_URL);
         connection.setAutoCommit(false); //changes made to the database are not saved as long as connection is open
         repository = new PersonRepository(connection);
         firstName = name.firstName();
@@ -60,6 +102,23 @@ class PeopleRepositoryTests {
         }
     }
 
+    /**
+     * Pooled connections commit every write, so tests using a pool run against their own in-memory database
+     * rather than the shared one, which only ever sees rolled back transactions.
+     */
+    private static String inMemoryDatabaseUrl() {
+        return "jdbc:h2:mem:" + UUID.randomUUID();
+    }
+
+    /**
+     * @return A connection keeping the in-memory database, with the schema created, alive until it is closed
+     */
+    private static Connection migratedConnection(String url) throws SQLException {
+        Connection connection = DriverManager.getConnection(url);
+        new MigrationRunner(connection).migrate();
+        return connection;
+    }
+
     @Test
     @DisplayName("Can save a single user in the Database")
     void canSaveOnePerson() {
@@ -80,6 +139,53 @@ class PeopleRepositoryTests {
         assertThat(savedPerson1.getId()).isNotEqualTo(savedPerson2.getId());
     }
 
+    @Test
+    @DisplayName("Can save many users in the Database with batching")
+    void canSaveAllPeople() {
+        List<Person> people = IntStream.range(0, 25)
+                .mapToObj(i -> new Person(name.firstName(), name.lastName(), ZonedDateTime.of(1980 + i, 11, 15, 15, 15, 0, 0, ZoneId.of("-6"))))
+                .toList();
+        List<Person> savedPeople = repository.saveAll(people, 10);
+        assertThat(savedPeople).hasSize(25);
+        assertThat(savedPeople.stream().map(Person::getId).distinct())
+                .hasSize(25)
+                .allMatch(id -> id > 0);
+        assertThat(repository.findByID(savedPeople.get(24).getId())).contains(savedPeople.get(24));
+    }
+
+    @Test
+    @DisplayName("Can save many users with children in the Database with batching")
+    void canSaveAllPeopleWithChildren() {
+        Person person1 = new Person(firstName, lastName, ZonedDateTime.of(1980, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+        person1.addChild(getRandomChild("Bright", lastName, 0));
+        Person person2 = new Person(name.firstName(), lastName, ZonedDateTime.of(1981, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+        person2.addChild(getRandomChild("Tochi", lastName, 2));
+        person2.addChild(getRandomChild("Henry", lastName, 4));
+
+        repository.saveAll(List.of(person1, person2));
+        Person foundPerson = repository.findByID(person2.getId()).get();
+        assertThat(foundPerson.getChildren().stream()
+                .map(Person::getFirstName)
+                .collect(toSet())).containsExactlyInAnyOrder("Tochi", "Henry");
+    }
+
+    @Test
+    @Disabled("Throughput comparison, run manually")
+    void compareSaveAllWithSave() {
+        int rows = 20_000;
+        long startTime = System.nanoTime();
+        IntStream.range(0, rows)
+                .mapToObj(i -> new Person(name.firstName(), name.lastName(), ZonedDateTime.of(1980, 11, 15, 15, 15, 0, 0, ZoneId.of("-6"))))
+                .forEach(repository::save);
+        long saveTime = System.nanoTime() - startTime;
+        startTime = System.nanoTime();
+        repository.saveAll(IntStream.range(0, rows)
+                .mapToObj(i -> new Person(name.firstName(), name.lastName(), ZonedDateTime.of(1980, 11, 15, 15, 15, 0, 0, ZoneId.of("-6"))))
+                .toList(), 500);
+        long saveAllTime = System.nanoTime() - startTime;
+        System.out.printf("save: %d ms, saveAll: %d ms%n", saveTime / 1_000_000, saveAllTime / 1_000_000);
+    }
+
     @Test
     @DisplayName("Can save a user with Address")
     void canSavePersonWithHomeAddress() {
@@ -162,6 +268,25 @@ class PeopleRepositoryTests {
         assertThat(foundPerson).isEqualTo(savedPerson);
     }
 
+    @Test
+    @DisplayName("Maps the columns of the different queries with their own mapping plans")
+    void mapsQueriesWithTheirOwnPlans(){
+        Person person = new Person(firstName, lastName, ZonedDateTime.of(1982, 9, 25, 13, 13, 0, 0, ZoneId.of("-8")));
+        person.setEmail("plan@example.com");
+        person.setSalary(new BigDecimal("123.45"));
+        person.addChild(getRandomChild("Bright", lastName, 0));
+        Person savedPerson = repository.save(person);
+
+        Person foundPerson = repository.findByID(savedPerson.getId()).orElseThrow();
+        Person pagedPerson = repository.findPage(savedPerson.getId() - 1, 1).content().get(0);
+
+        assertThat(foundPerson.getEmail()).isEqualTo("plan@example.com");
+        assertThat(foundPerson.getSalary()).isEqualByComparingTo("123.45");
+        assertThat(foundPerson.getChildren()).extracting(Person::getFirstName).containsExactly("Bright");
+        assertThat(pagedPerson).isEqualTo(savedPerson);
+        assertThat(pagedPerson.getChildren()).isEmpty();
+    }
+
     @Test
     @DisplayName("Can find a user in DB by ID with Children")
     void canFindPersonByIDWithChildren(){
@@ -178,6 +303,411 @@ class PeopleRepositoryTests {
     }
 
 
+    @Test
+    @DisplayName("Can find many users by ID in request order")
+    void canFindAllByIds(){
+        Person person1 = new Person(firstName, lastName, ZonedDateTime.of(1980, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+        person1.addChild(getRandomChild("Bright", lastName, 0));
+        person1.addChild(getRandomChild("Tochi", lastName, 2));
+        Person person2 = new Person(name.firstName(), lastName, ZonedDateTime.of(1981, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+        person2.setBusinessAddress(new Address(null, getRandomAddress().get("strAdd"), getRandomAddress().get("secAdd"),
+                getRandomAddress().get("city"), "TX", getRandomAddress().get("zipCode"),
+                getRandomAddress().get("country"), getRandomAddress().get("county"), Region.SOUTH));
+        Person person3 = new Person(name.firstName(), lastName, ZonedDateTime.of(1982, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+        repository.saveAll(List.of(person1, person2, person3));
+
+        List<Person> foundPeople = repository.findAllByIds(List.of(person3.getId(), -1L, person1.getId(), person2.getId(), person3.getId()));
+        Map<Long, Person> chunkedPeople = repository.findAllByIdsAsMap(List.of(person2.getId(), person1.getId(), person3.getId()), 2);
+
+        assertThat(foundPeople).containsExactly(person3, person1, person2);
+        assertThat(foundPeople.get(1).getChildren()).extracting(Person::getFirstName).containsExactlyInAnyOrder("Bright", "Tochi");
+        assertThat(foundPeople.get(2).getBusinessAddress().get().state()).isEqualTo("TX");
+        assertThat(chunkedPeople.keySet()).containsExactly(person2.getId(), person1.getId(), person3.getId());
+        assertThat(chunkedPeople.get(person1.getId()).getChildren()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("A session loads each person once and flushes only the changes")
+    void canFlushSessionChanges() throws SQLException {
+        Person person1 = new Person(firstName, lastName, ZonedDateTime.of(1980, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+        person1.setSalary(new BigDecimal("73000.28"));
+        Person person2 = new Person(name.firstName(), lastName, ZonedDateTime.of(1981, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+        repository.saveAll(List.of(person1, person2));
+
+        try (Session<Person> session = repository.openSession()) {
+            Person found = session.find(person1.getId()).orElseThrow();
+            assertThat(session.find(person1.getId())).containsSame(found);
+            assertThat(session.findAll(List.of(person2.getId(), person1.getId()))).element(1).isSameAs(found);
+            assertThat(session.isDirty()).isFalse();
+
+            found.setSalary(new BigDecimal("91000.50"));
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("UPDATE PERSON SET LAST_NAME='Changed' WHERE ID=" + person1.getId());
+            }
+            Person person3 = new Person(name.firstName(), lastName, ZonedDateTime.of(1982, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+            session.persist(person3);
+            session.remove(session.find(person2.getId()).orElseThrow());
+            assertThat(session.isDirty()).isTrue();
+            session.flush();
+
+            assertThat(session.isDirty()).isFalse();
+            assertThat(session.contains(person3)).isTrue();
+            Person updated = repository.findByID(person1.getId()).orElseThrow();
+            assertThat(updated.getSalary()).isEqualByComparingTo("91000.50");
+            assertThat(updated.getLastName()).isEqualTo("Changed");
+            assertThat(repository.findByID(person3.getId())).isPresent();
+            assertThat(repository.findByID(person2.getId())).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("Flushes a session on pooled connections all or nothing")
+    void flushesPooledSessionAtomically() throws SQLException {
+        String url = inMemoryDatabaseUrl();
+        try (Connection schemaConnection = migratedConnection(url);
+             ConnectionPool pool = new ConnectionPool(url, 1, 2, Duration.ofSeconds(5))) {
+            PersonRepository pooledRepository = new PersonRepository(pool);
+            Person stored = pooledRepository.save(new Person(firstName, lastName, ZonedDateTime.of(1980, 11, 15, 15, 15, 0, 0, ZoneId.of("-6"))));
+
+            try (Session<Person> session = pooledRepository.openSession()) {
+                assertThatThrownBy(() -> session.persist(stored)).isInstanceOf(IllegalArgumentException.class);
+                session.persist(new Person(firstName, lastName, ZonedDateTime.of(1981, 11, 15, 15, 15, 0, 0, ZoneId.of("-6"))));
+                session.find(stored.getId()).orElseThrow().setLastName("x".repeat(300));
+
+                assertThatThrownBy(session::flush).isInstanceOf(DataException.class);
+                assertThat(pooledRepository.count()).isEqualTo(1);
+                assertThat(session.isDirty()).isTrue();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Serves copies of cached people until they are updated or deleted")
+    void canCacheFoundPeople() {
+        Person person = new Person(firstName, lastName, ZonedDateTime.of(1980, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+        person.addChild(getRandomChild("Bright", lastName, 0));
+        repository.save(person);
+        repository.setEntityCache(new LruEntityCache<>(10, Duration.ofMinutes(5)));
+
+        Person first = repository.findByID(person.getId()).orElseThrow();
+        first.setLastName("Mutated");
+        first.getChildren().clear();
+        Person second = repository.findByID(person.getId()).orElseThrow();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getLastName()).isEqualTo(lastName);
+        assertThat(second.getChildren()).hasSize(1);
+        assertThat(repository.getEntityCache().orElseThrow().getStatistics())
+                .extracting(EntityCacheStatistics::hits, EntityCacheStatistics::misses)
+                .containsExactly(1L, 1L);
+
+        second.setFirstName("Updated");
+        repository.update(second);
+        assertThat(repository.findByID(person.getId()).orElseThrow().getFirstName()).isEqualTo("Updated");
+
+        Person child = second.getChildren().iterator().next();
+        repository.delete(child);
+        assertThat(repository.findByID(person.getId()).orElseThrow().getChildren()).isEmpty();
+        repository.delete(second);
+        assertThat(repository.findByID(person.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Invalidates the cached parent of a child changed without its parent attached")
+    void invalidatesCachedParentOfDetachedChild() {
+        Person person = new Person(firstName, lastName, ZonedDateTime.of(1980, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+        person.addChild(getRandomChild("Bright", lastName, 0));
+        person.addChild(getRandomChild("Okechukwu", lastName, 0));
+        repository.save(person);
+        repository.setEntityCache(new LruEntityCache<>(10, Duration.ofMinutes(5)));
+        repository.findByID(person.getId());
+
+        List<Long> childIds = person.getChildren().stream().map(Person::getId).toList();
+        Person child = repository.findByID(childIds.get(0)).orElseThrow();
+        assertThat(child.getParent()).isEmpty();
+        child.setFirstName("Renamed");
+        repository.update(child);
+        assertThat(repository.findByID(person.getId()).orElseThrow().getChildren()).extracting(Person::getFirstName).contains("Renamed");
+
+        repository.delete(repository.findByID(childIds.get(1)).orElseThrow());
+        assertThat(repository.findByID(person.getId()).orElseThrow().getChildren()).extracting(Person::getId).containsExactly(childIds.get(0));
+    }
+
+    @Test
+    @DisplayName("People sharing an address share one ADDRESSES row")
+    void canDeduplicateAddresses() {
+        String street = "12 Household Lane " + number.digits(8);
+        Person person1 = new Person(firstName, lastName, ZonedDateTime.of(1980, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+        person1.setHomeAddress(new Address(null, street, "Apt. 1", "Houston", "TX", "77001", "United States", "Harris", Region.SOUTH));
+        Person person2 = new Person(name.firstName(), lastName, ZonedDateTime.of(1981, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+        person2.setHomeAddress(new Address(null, "  " + street.toUpperCase() + " ", "apt.  1", "houston", "tx", "77001", "United States", "Harris", Region.SOUTH));
+        repository.saveAll(List.of(person1, person2));
+
+        PersonRepository otherRepository = new PersonRepository(connection);
+        otherRepository.setLookupAddressesInDatabase(true);
+        Person person3 = new Person(name.firstName(), lastName, ZonedDateTime.of(1982, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+        person3.setHomeAddress(new Address(null, street, "Apt. 1", "Houston", "TX", "77001", "United States", "Harris", Region.SOUTH));
+        otherRepository.save(person3);
+
+        Long addressId = person1.getHomeAddress().orElseThrow().id();
+        assertThat(repository.findByID(person2.getId()).orElseThrow().getHomeAddress().orElseThrow().id()).isEqualTo(addressId);
+        assertThat(repository.findByID(person3.getId()).orElseThrow().getHomeAddress().orElseThrow().id()).isEqualTo(addressId);
+        assertThat(repository.getAddressResolverStatistics())
+                .extracting(AddressResolverStatistics::hits, AddressResolverStatistics::inserts)
+                .containsExactly(1L, 1L);
+        assertThat(otherRepository.getAddressResolverStatistics().databaseHits()).isEqualTo(1);
+        assertThat(otherRepository.getAddressResolverStatistics().hitRate()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Remembers address IDs across operations only when asked to")
+    void canRememberAddressIds() {
+        Address address = new Address(null, number.digits(6) + " Remembered Road", null, "Dallas", "TX", "75201", "United States", "Dallas", Region.SOUTH);
+        PersonRepository rememberingRepository = new PersonRepository(connection);
+        rememberingRepository.setRememberAddressIds(true);
+        Person person1 = new Person(firstName, lastName, ZonedDateTime.of(1980, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+        person1.setHomeAddress(address);
+        Person person2 = new Person(name.firstName(), lastName, ZonedDateTime.of(1981, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+        person2.setHomeAddress(new Address(null, address.streetAddress(), null, "Dallas", "TX", "75201", "United States", "Dallas", Region.SOUTH));
+
+        rememberingRepository.save(person1);
+        rememberingRepository.save(person2);
+
+        assertThat(person2.getHomeAddress().orElseThrow().id()).isEqualTo(person1.getHomeAddress().orElseThrow().id());
+        assertThat(rememberingRepository.getAddressResolverStatistics())
+                .extracting(AddressResolverStatistics::hits, AddressResolverStatistics::inserts, AddressResolverStatistics::size)
+                .containsExactly(1L, 1L, 1);
+        assertThat(repository.getAddressResolverStatistics().size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Does not reuse the address of a rolled back save")
+    void doesNotReuseRolledBackAddress() throws SQLException {
+        String street = number.digits(6) + " Rolled Back Road";
+        Person person1 = new Person(firstName, lastName, ZonedDateTime.of(1980, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+        person1.setHomeAddress(new Address(null, street, null, "Dallas", "TX", "75201", "United States", "Dallas", Region.SOUTH));
+        repository.save(person1);
+        connection.rollback();
+
+        Person person2 = new Person(name.firstName(), lastName, ZonedDateTime.of(1981, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+        person2.setHomeAddress(new Address(null, street, null, "Dallas", "TX", "75201", "United States", "Dallas", Region.SOUTH));
+        repository.save(person2);
+
+        assertThat(repository.findByID(person2.getId()).flatMap(Person::getHomeAddress)).map(Address::streetAddress).contains(street);
+    }
+
+    @Test
+    @DisplayName("Saves a family tree generation by generation")
+    void canSaveFamilyTreeByGeneration() {
+        Person root = new Person(firstName, lastName, ZonedDateTime.of(1950, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+        root.setHomeAddress(new Address(null, getRandomAddress().get("strAdd"), getRandomAddress().get("secAdd"),
+                getRandomAddress().get("city"), "TX", getRandomAddress().get("zipCode"),
+                getRandomAddress().get("country"), getRandomAddress().get("county"), Region.SOUTH));
+        List<Person> children = new ArrayList<>();
+        List<Person> grandchildren = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Person child = getRandomChild(name.firstName(), lastName, i);
+            child.setHomeAddress(root.getHomeAddress().orElseThrow());
+            root.addChild(child);
+            children.add(child);
+            for (int j = 0; j < 2; j++) {
+                Person grandchild = getRandomChild(name.firstName(), lastName, j);
+                child.addChild(grandchild);
+                grandchildren.add(grandchild);
+            }
+        }
+
+        repository.saveAll(List.of(root));
+
+        long lastChildId = children.stream().mapToLong(Person::getId).max().orElseThrow();
+        assertThat(children).allSatisfy(child -> assertThat(child.getId()).isGreaterThan(root.getId()));
+        assertThat(grandchildren).allSatisfy(grandchild -> assertThat(grandchild.getId()).isGreaterThan(lastChildId));
+        Person foundChild = repository.findByID(children.get(0).getId()).orElseThrow();
+        assertThat(foundChild.getChildren()).hasSize(2);
+        assertThat(foundChild.getHomeAddress().orElseThrow().id()).isEqualTo(root.getHomeAddress().orElseThrow().id());
+        assertThat(repository.findByID(root.getId()).orElseThrow().getChildren()).containsExactlyInAnyOrderElementsOf(children);
+    }
+
+    @Test
+    @DisplayName("Loads the children and addresses of a whole page on first access")
+    void canLoadPageAssociationsLazily() {
+        Person person1 = new Person(firstName, lastName, ZonedDateTime.of(1980, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+        person1.addChild(getRandomChild("Bright", lastName, 0));
+        Person person2 = new Person(name.firstName(), lastName, ZonedDateTime.of(1981, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+        person2.setHomeAddress(new Address(null, getRandomAddress().get("strAdd"), getRandomAddress().get("secAdd"),
+                getRandomAddress().get("city"), "TX", getRandomAddress().get("zipCode"),
+                getRandomAddress().get("country"), getRandomAddress().get("county"), Region.SOUTH));
+        repository.saveAll(List.of(person1, person2));
+
+        Page<Person> page = repository.findPage(person1.getId() - 1, 2, FetchMode.LAZY);
+        assertThat(page.content()).allMatch(person -> !person.isAssociationsLoaded());
+
+        assertThat(page.content().get(0).getChildren()).extracting(Person::getFirstName).containsExactly("Bright");
+        StatementCacheStatistics afterFirstAccess = repository.getStatementCacheStatistics();
+        assertThat(page.content().get(1).isAssociationsLoaded()).isTrue();
+        assertThat(page.content().get(1).getHomeAddress().orElseThrow().state()).isEqualTo("TX");
+        assertThat(repository.getStatementCacheStatistics()).isEqualTo(afterFirstAccess);
+
+        List<Person> eagerPeople = repository.findAll(FetchMode.EAGER);
+        assertThat(eagerPeople).allMatch(Person::isAssociationsLoaded);
+    }
+
+    @Test
+    @DisplayName("Records per-operation metrics and exposes them through JMX")
+    void recordsOperationMetrics() throws Exception {
+        repository.getMetrics().reset();
+        Person person = repository.save(new Person(firstName, lastName, ZonedDateTime.of(1980, 11, 15, 15, 15, 0, 0, ZoneId.of("-6"))));
+        repository.findByID(person.getId());
+        repository.findByID(-1L);
+        repository.delete(person);
+
+        Map<String, OperationStatistics> operations = repository.getMetrics().getOperations();
+        assertThat(operations.get("SAVE").getRowsWritten()).isEqualTo(1);
+        assertThat(operations.get("FIND_BY_ID").getCalls()).isEqualTo(2);
+        assertThat(operations.get("FIND_BY_ID").getRowsRead()).isEqualTo(1);
+        assertThat(operations.get("FIND_BY_ID").getP99Micros()).isPositive();
+        assertThat(operations.get("DELETE_ONE").getRowsWritten()).isEqualTo(1);
+        assertThat(operations).doesNotContainKey("COUNT");
+
+        ObjectName objectName = new ObjectName("com.bright.peopledb:type=RepositoryMetrics,repository=\"PersonRepository\"");
+        TabularData jmxOperations = (TabularData) ManagementFactory.getPlatformMBeanServer().getAttribute(objectName, "Operations");
+        CompositeData jmxSave = (CompositeData) jmxOperations.get(new Object[]{"SAVE"}).get("value");
+        assertThat(jmxSave.get("calls")).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Retries loading lazy associations after a failed load")
+    void retriesFailedLazyLoad() throws SQLException {
+        try (Connection memoryConnection = migratedConnection(inMemoryDatabaseUrl())) {
+            PersonRepository memoryRepository = new PersonRepository(memoryConnection);
+            Person parent = new Person(firstName, lastName, ZonedDateTime.of(1950, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+            parent.addChild(getRandomChild(lastName, 1));
+            memoryRepository.save(parent);
+            Person lazyParent = memoryRepository.findAll(FetchMode.LAZY).stream()
+                    .filter(person -> person.getId().equals(parent.getId())).findFirst().orElseThrow();
+
+            try (Statement statement = memoryConnection.createStatement()) {
+                statement.execute("ALTER TABLE PERSON RENAME TO PERSON_AWAY");
+                assertThatThrownBy(lazyParent::getChildren).isInstanceOf(DataException.class);
+                statement.execute("ALTER TABLE PERSON_AWAY RENAME TO PERSON");
+            }
+
+            assertThat(lazyParent.isAssociationsLoaded()).isFalse();
+            assertThat(lazyParent.getChildren()).hasSize(1);
+            assertThat(lazyParent.isAssociationsLoaded()).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Shares one mapping plan between queries selecting the same columns")
+    void sharesMappingPlansByColumnLayout() throws SQLException {
+        Person person = repository.save(new Person(firstName, lastName, ZonedDateTime.of(1980, 11, 15, 15, 15, 0, 0, ZoneId.of("-6"))));
+        CompiledQuery byLastName = PersonQuery.where(PersonQuery.lastName().eq(lastName)).compile(PersonRepository.STREAM_ALL_SQL);
+        CompiledQuery byId = PersonQuery.where(PersonQuery.id().eq(person.getId())).compile(PersonRepository.STREAM_ALL_SQL);
+        try (PreparedStatement byLastNameStatement = connection.prepareStatement(byLastName.sql());
+             PreparedStatement byIdStatement = connection.prepareStatement(byId.sql())) {
+            byLastName.bind(byLastNameStatement);
+            byId.bind(byIdStatement);
+            try (ResultSet byLastNameRows = byLastNameStatement.executeQuery();
+                 ResultSet byIdRows = byIdStatement.executeQuery()) {
+                assertThat(repository.rowMapper(byId.sql(), byIdRows)).isSameAs(repository.rowMapper(byLastName.sql(), byLastNameRows));
+                assertThat(byIdRows.next()).isTrue();
+                assertThat(repository.extractEntityFromResultSet(byIdRows).getId()).isEqualTo(person.getId());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Hands out traced statements only while the slow query log is enabled")
+    void tracesStatementsOnlyWhileEnabled() throws SQLException {
+        StatementCache statementCache = new StatementCache(connection, 2);
+        SlowQueryLog slowQueryLog = SlowQueryLog.getInstance();
+        try {
+            assertThat(Proxy.isProxyClass(statementCache.prepare(PersonRepository.FIND_BY_IDS_SQL).getClass())).isFalse();
+
+            slowQueryLog.setThresholdMillis(0);
+            PreparedStatement traced = statementCache.prepare(PersonRepository.FIND_BY_IDS_SQL);
+            assertThat(Proxy.isProxyClass(traced.getClass())).isTrue();
+            assertThat(statementCache.prepare(PersonRepository.FIND_BY_IDS_SQL)).isSameAs(traced);
+        } finally {
+            slowQueryLog.setThresholdMillis(-1);
+        }
+        assertThat(Proxy.isProxyClass(statementCache.prepare(PersonRepository.FIND_BY_IDS_SQL).getClass())).isFalse();
+        assertThat(statementCache.getStatistics().misses()).isEqualTo(1);
+        statementCache.close();
+    }
+
+    @Test
+    @DisplayName("Logs slow operations with their masked bind values once enabled at runtime")
+    void logsSlowQueries() {
+        List<LogRecord> records = new ArrayList<>();
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord logRecord) {
+                records.add(logRecord);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Logger logger = Logger.getLogger("com.bright.peopledb.SlowQueryLog");
+        logger.addHandler(handler);
+        logger.setUseParentHandlers(false);
+        SlowQueryLog slowQueryLog = SlowQueryLog.getInstance();
+        Person person = new Person(firstName, lastName, ZonedDateTime.of(1980, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+        person.setEmail("secret@example.com");
+        person.setSalary(new BigDecimal("123456.78"));
+        try {
+            repository.save(person);
+            assertThat(records).isEmpty();
+
+            slowQueryLog.setThresholdMillis(0);
+            repository.save(person);
+            repository.findByID(person.getId());
+        } finally {
+            slowQueryLog.setThresholdMillis(-1);
+            logger.removeHandler(handler);
+            logger.setUseParentHandlers(true);
+        }
+
+        assertThat(records).hasSize(2);
+        String saveLog = records.get(0).getMessage();
+        assertThat(saveLog).contains("Slow SAVE on PersonRepository", "INSERT INTO PERSON", "1='" + firstName + "'", "4=****", "5=****");
+        assertThat(saveLog).doesNotContain("secret@example.com", "123456.78");
+        assertThat(records.get(1).getMessage()).contains("Slow FIND_BY_ID", "rows read 1", "WHERE PARENT.ID = ? [1=" + person.getId() + "]");
+    }
+
+    @Test
+    @DisplayName("Emits flight recorder events for statements, extraction and graph assembly")
+    void emitsFlightRecorderEvents() throws Exception {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("com.bright.peopledb.StatementExecution");
+            recording.enable("com.bright.peopledb.ResultExtraction");
+            recording.enable("com.bright.peopledb.GraphAssembly");
+            recording.start();
+            Person person = new Person(firstName, lastName, ZonedDateTime.of(1980, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+            person.addChild(getRandomChild("Bright", lastName, 0));
+            repository.save(person);
+            repository.findByID(person.getId());
+            recording.stop();
+            Path dump = Files.createTempFile("peopledb", ".jfr");
+            recording.dump(dump);
+            events = RecordingFile.readAllEvents(dump);
+            Files.delete(dump);
+        }
+
+        assertThat(events).extracting(event -> event.getEventType().getName()).contains(
+                "com.bright.peopledb.StatementExecution", "com.bright.peopledb.ResultExtraction", "com.bright.peopledb.GraphAssembly");
+        assertThat(events).filteredOn(event -> event.getEventType().getName().endsWith("ResultExtraction"))
+                .anySatisfy(event -> assertThat(event.getString("operation")).isEqualTo("FIND_BY_ID"));
+    }
+
     @Test
     @DisplayName("Find an ID not existing in the Database")
     void testPersonIdNotFound(){
@@ -203,6 +733,66 @@ class PeopleRepositoryTests {
         assertThat(people).hasSizeGreaterThanOrEqualTo(10);
     }
 
+    @Test
+    @DisplayName("Can stream all the users in the Database")
+    void canStreamAll() {
+        Person person = new Person(firstName, lastName, ZonedDateTime.of(1980, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+        String state = getRandomAddress().get("state");
+        person.setHomeAddress(new Address(null, getRandomAddress().get("strAdd"), getRandomAddress().get("secAdd"),
+                getRandomAddress().get("city"), state, getRandomAddress().get("zipCode"),
+                getRandomAddress().get("country"), getRandomAddress().get("county"), Region.WEST));
+        repository.save(person);
+        long total = repository.count();
+
+        try (Stream<Person> people = repository.streamAll(7)) {
+            List<Person> streamed = people.toList();
+            assertThat(streamed).hasSize((int) total);
+            Person streamedPerson = streamed.stream().filter(p -> p.getId().equals(person.getId())).findFirst().orElseThrow();
+            assertThat(streamedPerson.getHomeAddress().get().state()).isEqualTo(state);
+        }
+    }
+
+    @Test
+    @DisplayName("Can page through the users in the Database")
+    void canFindPages() {
+        List<Person> savedPeople = repository.saveAll(IntStream.range(0, 5)
+                .mapToObj(i -> new Person(name.firstName(), lastName, ZonedDateTime.of(1980 + i, 11, 15, 15, 15, 0, 0, ZoneId.of("-6"))))
+                .toList());
+        long afterId = savedPeople.get(0).getId() - 1;
+
+        Page<Person> firstPage = repository.findPage(afterId, 2);
+        Page<Person> secondPage = repository.findPage(firstPage.continuationToken(), 2, false);
+        Page<Person> lastPage = repository.findPage(secondPage.continuationToken(), 2, false);
+
+        assertThat(firstPage.content()).containsExactlyElementsOf(savedPeople.subList(0, 2));
+        assertThat(secondPage.content()).containsExactlyElementsOf(savedPeople.subList(2, 4));
+        assertThat(lastPage.content()).containsExactly(savedPeople.get(4));
+        assertThat(lastPage.hasNext()).isFalse();
+        assertThat(lastPage.continuationToken()).isNull();
+    }
+
+    @Test
+    @DisplayName("Can page through the users with their children and addresses")
+    void canFindPagesWithAssociations() {
+        Person person1 = new Person(firstName, lastName, ZonedDateTime.of(1980, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+        person1.addChild(getRandomChild("Bright", lastName, 0));
+        person1.addChild(getRandomChild("Tochi", lastName, 2));
+        Person person2 = new Person(name.firstName(), lastName, ZonedDateTime.of(1981, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+        person2.setHomeAddress(new Address(null, getRandomAddress().get("strAdd"), getRandomAddress().get("secAdd"),
+                getRandomAddress().get("city"), "GA", getRandomAddress().get("zipCode"),
+                getRandomAddress().get("country"), getRandomAddress().get("county"), Region.SOUTH));
+        repository.saveAll(List.of(person1, person2));
+
+        Page<Person> page = repository.findPage(person1.getId() - 1, 1, true);
+        assertThat(page.content()).containsExactly(person1);
+        assertThat(page.content().get(0).getChildren()).extracting(Person::getFirstName).containsExactlyInAnyOrder("Bright", "Tochi");
+        assertThat(page.hasNext()).isTrue();
+
+        Page<Person> nextPage = repository.findPage(page.continuationToken(), 1, true);
+        assertThat(nextPage.content()).containsExactly(person2);
+        assertThat(nextPage.content().get(0).getHomeAddress().get().state()).isEqualTo("GA");
+    }
+
     @Test
     @DisplayName("Can count the number of users in the database")
     void canGetCount(){
@@ -234,6 +824,412 @@ class PeopleRepositoryTests {
         assertThat(endCount).isEqualTo(startCount - 2);
     }
 
+    @Test
+    @DisplayName("Deletes people by their IDs in chunks with one prepared statement")
+    void canDeleteByIdsInChunks(){
+        List<Person> people = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            people.add(new Person(name.firstName(), lastName, ZonedDateTime.of(1982 + i, 9, 25, 13, 13, 0, 0, ZoneId.of("-8"))));
+        }
+        repository.saveAll(people);
+        List<Long> ids = people.stream().map(Person::getId).toList();
+        long startCount = repository.count();
+        long missesBefore = repository.getStatementCacheStatistics().misses();
+
+        assertThat(repository.deleteByIds(ids, 2)).isEqualTo(5);
+        assertThat(repository.getStatementCacheStatistics().misses()).isEqualTo(missesBefore + 1);
+        assertThat(repository.count()).isEqualTo(startCount - 5);
+        assertThat(repository.deleteByIds(List.of())).isZero();
+    }
+
+    @Test
+    @DisplayName("Deletes the people matching a condition")
+    void canDeleteWhere(){
+        String uniqueLastName = lastName + number.digits(8);
+        for (int i = 0; i < 3; i++) {
+            repository.save(new Person(name.firstName(), uniqueLastName, ZonedDateTime.of(1982 + i, 9, 25, 13, 13, 0, 0, ZoneId.of("-8"))));
+        }
+        long startCount = repository.count();
+        List<Long> deletedIds = new ArrayList<>();
+        repository.addEntityListener(new EntityListener<>() {
+            @Override
+            public void deleted(Collection<Long> ids) {
+                deletedIds.addAll(ids);
+            }
+        });
+
+        assertThat(repository.deleteWhere(PersonQuery.where(PersonQuery.lastName().eq(uniqueLastName)))).isEqualTo(3);
+        assertThat(repository.count()).isEqualTo(startCount - 3);
+        assertThat(deletedIds).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Deletes a family tree together with the addresses no one else uses")
+    void canDeleteFamilyTreeWithOrphanedAddresses(){
+        Address familyHome = new Address(null, "7 Family Road " + number.digits(8), null, "Austin", "TX", "73301", "United States", "Travis", Region.SOUTH);
+        Address office = new Address(null, "1 Office Park " + number.digits(8), null, "Austin", "TX", "73301", "United States", "Travis", Region.SOUTH);
+        Person root = new Person(firstName, lastName, ZonedDateTime.of(1950, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+        root.setHomeAddress(familyHome);
+        root.setBusinessAddress(office);
+        for (int i = 0; i < 2; i++) {
+            Person child = getRandomChild(name.firstName(), lastName, i);
+            child.setHomeAddress(familyHome);
+            child.addChild(getRandomChild(name.firstName(), lastName, i));
+            root.addChild(child);
+        }
+        Person colleague = new Person(name.firstName(), name.lastName(), ZonedDateTime.of(1960, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+        colleague.setBusinessAddress(office);
+        repository.saveAll(List.of(root, colleague));
+        Long familyHomeId = root.getHomeAddress().orElseThrow().id();
+        Long officeId = root.getBusinessAddress().orElseThrow().id();
+        long startCount = repository.count();
+
+        assertThat(repository.deleteWhereCascade(PersonQuery.where(PersonQuery.id().eq(root.getId())))).isEqualTo(5);
+
+        AddressRepository addressRepository = new AddressRepository(connection);
+        assertThat(repository.count()).isEqualTo(startCount - 5);
+        assertThat(addressRepository.findByID(familyHomeId)).isEmpty();
+        assertThat(addressRepository.findByID(officeId)).isPresent();
+        Person newOwner = new Person(name.firstName(), name.lastName(), ZonedDateTime.of(1990, 11, 15, 15, 15, 0, 0, ZoneId.of("-6")));
+        newOwner.setHomeAddress(new Address(null, familyHome.streetAddress(), null, "Austin", "TX", "73301", "United States", "Travis", Region.SOUTH));
+        repository.save(newOwner);
+        assertThat(newOwner.getHomeAddress().orElseThrow().id()).isNotEqualTo(familyHomeId);
+    }
+
+    @Test
+    @DisplayName("Upserts people and addresses by their IDs")
+    void canUpsertPeople(){
+        Person existing = repository.save(new Person(firstName, lastName, ZonedDateTime.of(1982, 9, 25, 13, 13, 0, 0, ZoneId.of("-8"))));
+        existing.setSalary(new BigDecimal("75000.00"));
+        Person newcomer = new Person(name.firstName(), lastName, ZonedDateTime.of(1985, 9, 25, 13, 13, 0, 0, ZoneId.of("-8")));
+        long startCount = repository.count();
+
+        UpsertResult result = repository.upsertAll(List.of(existing, newcomer));
+
+        assertThat(result.ids()).containsExactly(existing.getId(), newcomer.getId());
+        assertThat(result.inserted()).isEqualTo(1);
+        assertThat(result.updated()).isEqualTo(1);
+        assertThat(repository.count()).isEqualTo(startCount + 1);
+        assertThat(repository.findByID(existing.getId()).orElseThrow().getSalary()).isEqualByComparingTo("75000");
+
+        AddressRepository addressRepository = new AddressRepository(connection);
+        Address address = addressRepository.save(new Address(null, "3 Upsert Street", null, "Dallas", "TX", "75001", "United States", "Dallas", Region.SOUTH));
+        addressRepository.saveOrUpdate(new Address(address.id(), "3 Upsert Street", null, "Plano", "TX", "75001", "United States", "Collin", Region.SOUTH));
+        assertThat(addressRepository.findByID(address.id()).orElseThrow().city()).isEqualTo("Plano");
+    }
+
+    @Test
+    @DisplayName("Upserts people by their email")
+    void canUpsertPeopleByEmail(){
+        String email = number.digits(10) + "@upsert.com";
+        Person existing = new Person(firstName, lastName, ZonedDateTime.of(1982, 9, 25, 13, 13, 0, 0, ZoneId.of("-8")));
+        existing.setEmail(email);
+        repository.save(existing);
+        Person incoming = new Person("Renamed", lastName, ZonedDateTime.of(1982, 9, 25, 13, 13, 0, 0, ZoneId.of("-8")));
+        incoming.setEmail(email);
+        Person newcomer = new Person(name.firstName(), lastName, ZonedDateTime.of(1985, 9, 25, 13, 13, 0, 0, ZoneId.of("-8")));
+        newcomer.setEmail("new." + email);
+        long startCount = repository.count();
+
+        UpsertResult result = repository.upsertAllByEmail(List.of(incoming, newcomer));
+
+        assertThat(result.ids()).hasSize(2).first().isEqualTo(existing.getId());
+        assertThat(newcomer.getId()).isNotNull();
+        assertThat(result.inserted()).isEqualTo(1);
+        assertThat(result.updated()).isEqualTo(1);
+        assertThat(repository.count()).isEqualTo(startCount + 1);
+        assertThat(repository.findByID(existing.getId()).orElseThrow().getFirstName()).isEqualTo("Renamed");
+    }
+
+    @Test
+    @DisplayName("Filters, sorts and limits people in the database")
+    void canQueryPeople(){
+        String uniqueLastName = lastName + number.digits(8);
+        List<Person> people = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Person person = new Person(name.firstName(), uniqueLastName, ZonedDateTime.of(1970 + i * 10, 1, 15, 12, 0, 0, 0, ZoneId.of("+0")));
+            person.setSalary(new BigDecimal(40_000 + i * 20_000));
+            person.setHomeAddress(new Address(null, "4 Query Road", null, "Seattle", "WA", "98101", "United States", "King", i == 3 ? Region.WEST : Region.NORTH));
+            people.add(person);
+        }
+        repository.saveAll(people);
+        PersonQuery wellPaid = PersonQuery.where(PersonQuery.lastName().eq(uniqueLastName))
+                .and(PersonQuery.salary().gte(new BigDecimal("60000")));
+
+        assertThat(repository.findAll(wellPaid.orderBy(PersonQuery.salary().desc()).limit(2)))
+                .containsExactly(people.get(3), people.get(2));
+        assertThat(repository.count(wellPaid.orderBy(PersonQuery.salary().desc()).limit(2))).isEqualTo(3);
+        try (Stream<Person> west = repository.stream(wellPaid.and(PersonQuery.region().eq(Region.WEST)))) {
+            assertThat(west.toList()).singleElement()
+                    .satisfies(person -> assertThat(person.getHomeAddress().orElseThrow().region()).isEqualTo(Region.WEST));
+        }
+        assertThat(repository.findAll(PersonQuery.where(PersonQuery.lastName().startsWith(uniqueLastName))
+                .and(PersonQuery.dateOfBirth().lt(ZonedDateTime.of(1985, 1, 1, 0, 0, 0, 0, ZoneId.of("+0")))))).hasSize(2);
+        assertThat(repository.deleteWhere(PersonQuery.where(PersonQuery.lastName().eq(uniqueLastName))
+                .and(PersonQuery.salary().lt(new BigDecimal("60000"))))).isEqualTo(1);
+        assertThat(repository.count(PersonQuery.where(PersonQuery.lastName().eq(uniqueLastName)))).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Aggregates salaries and counts people in the database")
+    void canAggregatePeople(){
+        String uniqueLastName = lastName + number.digits(8);
+        List<Person> people = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Person person = new Person(name.firstName(), uniqueLastName, ZonedDateTime.of(1970 + i * 10, 6, 15, 12, 0, 0, 0, ZoneId.of("+0")));
+            person.setSalary(new BigDecimal(40_000 + i * 20_000));
+            person.setHomeAddress(new Address(null, "5 Report Road", null, "Seattle", "WA", "98101", "United States", "King", i == 3 ? Region.WEST : Region.NORTH));
+            people.add(person);
+        }
+        repository.saveAll(people);
+        PersonQuery family = PersonQuery.where(PersonQuery.lastName().eq(uniqueLastName));
+
+        SalaryStatistics statistics = repository.salaryStatistics(family);
+        assertThat(statistics.count()).isEqualTo(4);
+        assertThat(statistics.sum()).isEqualTo(280_000);
+        assertThat(statistics.average()).isEqualTo(70_000);
+        assertThat(statistics.min()).isEqualTo(40_000);
+        assertThat(statistics.max()).isEqualTo(100_000);
+        assertThat(statistics.median()).isEqualTo(70_000);
+        assertThat(repository.salaryPercentiles(family, 0, 0.25, 1)).containsExactly(40_000, 55_000, 100_000);
+        assertThat(repository.countBy(PersonGrouping.REGION, family).asMap()).containsExactly(Map.entry("NORTH", 3L), Map.entry("WEST", 1L));
+        GroupCounts decades = repository.countBy(PersonGrouping.BIRTH_DECADE, family);
+        assertThat(decades.size()).isEqualTo(4);
+        assertThat(decades.keyAt(0)).isEqualTo("1970");
+        assertThat(decades.count("2000")).isEqualTo(1);
+        assertThat(decades.total()).isEqualTo(4);
+        assertThat(repository.salaryStatistics(PersonQuery.where(PersonQuery.lastName().eq(uniqueLastName + "-nobody"))).average()).isNaN();
+    }
+
+    @Test
+    @DisplayName("Can look up people through in-memory indexes kept in sync with the repository")
+    void canLookUpPeopleThroughIndex(){
+        String uniqueLastName = lastName + number.digits(8);
+        Person first = new Person(firstName, uniqueLastName + "a", ZonedDateTime.of(1951, 3, 1, 0, 0, 0, 0, ZoneId.of("+0")));
+        first.setEmail(uniqueLastName + "@index.test");
+        repository.save(first);
+
+        try (PersonIndex index = PersonIndex.build(repository)) {
+            Person second = repository.save(new Person(firstName, uniqueLastName + "b", ZonedDateTime.of(1952, 3, 1, 0, 0, 0, 0, ZoneId.of("+0"))));
+            assertThat(index.findByEmail(uniqueLastName + "@index.test")).extracting(Person::getId).containsExactly(first.getId());
+            assertThat(index.findByLastNameStartingWith(uniqueLastName)).extracting(Person::getId).containsExactly(first.getId(), second.getId());
+
+            second.setLastName("Renamed" + uniqueLastName);
+            second.setDateOfBirth(ZonedDateTime.of(1851, 3, 1, 0, 0, 0, 0, ZoneId.of("+0")));
+            repository.update(second);
+            assertThat(index.findByLastNameStartingWith(uniqueLastName)).extracting(Person::getId).containsExactly(first.getId());
+            assertThat(index.findByDateOfBirthBetween(ZonedDateTime.of(1851, 3, 1, 0, 0, 0, 0, ZoneId.of("+0")), ZonedDateTime.of(1851, 3, 1, 0, 0, 0, 0, ZoneId.of("+0"))))
+                    .extracting(Person::getId).containsExactly(second.getId());
+
+            second.setEmail(uniqueLastName + "@renamed.test");
+            repository.update(second);
+            assertThat(index.findByEmail(uniqueLastName + "@renamed.test")).extracting(Person::getId).containsExactly(second.getId());
+
+            int sizeBefore = index.size();
+            repository.delete(first);
+            assertThat(index.size()).isEqualTo(sizeBefore - 1);
+            assertThat(index.findByEmail(uniqueLastName + "@index.test")).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("Rebuilds an index that missed a rolled back delete")
+    void canRebuildIndexAfterRollback() throws SQLException {
+        try (Connection memoryConnection = migratedConnection(inMemoryDatabaseUrl())) {
+            memoryConnection.setAutoCommit(false);
+            PersonRepository memoryRepository = new PersonRepository(memoryConnection);
+            Person person = new Person(firstName, lastName, ZonedDateTime.of(1951, 3, 1, 0, 0, 0, 0, ZoneId.of("+0")));
+            person.setEmail("rollback@index.test");
+            memoryRepository.save(person);
+            memoryConnection.commit();
+
+            try (PersonIndex index = PersonIndex.build(memoryRepository)) {
+                memoryRepository.delete(person);
+                memoryConnection.rollback();
+                assertThat(index.findByEmail("rollback@index.test")).isEmpty();
+
+                index.rebuild();
+                assertThat(index.findByEmail("rollback@index.test")).extracting(Person::getId).containsExactly(person.getId());
+                assertThat(index.size()).isEqualTo(1);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Reuses cached prepared statements for repeated operations")
+    void reusesCachedStatements(){
+        Person savedPerson = repository.save(new Person(firstName, lastName, ZonedDateTime.of(1982, 9, 25, 13, 13, 0, 0, ZoneId.of("-8"))));
+        repository.count();
+        long missesBefore = repository.getStatementCacheStatistics().misses();
+        long hitsBefore = repository.getStatementCacheStatistics().hits();
+        repository.count();
+        repository.count();
+        repository.findByID(savedPerson.getId());
+        assertThat(repository.getStatementCacheStatistics().misses()).isEqualTo(missesBefore);
+        assertThat(repository.getStatementCacheStatistics().hits()).isEqualTo(hitsBefore + 3);
+    }
+
+    @Test
+    @DisplayName("Evicts the least recently used statement when the cache is full")
+    void evictsLeastRecentlyUsedStatement(){
+        PersonRepository smallCacheRepository = new PersonRepository(connection, 2);
+        smallCacheRepository.save(new Person(firstName, lastName, ZonedDateTime.of(1982, 9, 25, 13, 13, 0, 0, ZoneId.of("-8"))));
+        smallCacheRepository.count();
+        smallCacheRepository.findAll();
+        assertThat(smallCacheRepository.getStatementCacheStatistics().evictions()).isPositive();
+        assertThat(smallCacheRepository.getStatementCacheStatistics().size()).isEqualTo(2);
+        assertThat(smallCacheRepository.count()).isPositive();
+        smallCacheRepository.close();
+    }
+
+    @Test
+    @DisplayName("Keeps a statement evicted by a nested operation open until the outer operation ends")
+    void keepsEvictedStatementOpenDuringOperation(){
+        for (int statementCacheSize = 1; statementCacheSize <= 2; statementCacheSize++) {
+            PersonRepository tinyCacheRepository = new PersonRepository(connection, statementCacheSize);
+            tinyCacheRepository.setLookupAddressesInDatabase(true);
+            Person person = new Person(firstName, lastName, ZonedDateTime.of(1982, 9, 25, 13, 13, 0, 0, ZoneId.of("-8")));
+            person.setHomeAddress(new Address(null, number.digits(6) + " Tiny Cache Lane", null, "Austin", "TX", "73301", "United States", "Travis", Region.SOUTH));
+
+            Person savedPerson = tinyCacheRepository.save(person);
+
+            assertThat(savedPerson.getId()).isNotNull();
+            assertThat(tinyCacheRepository.findByID(savedPerson.getId()).flatMap(Person::getHomeAddress))
+                    .map(Address::streetAddress).contains(person.getHomeAddress().orElseThrow().streetAddress());
+            tinyCacheRepository.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Saves people with shared addresses from many threads on one connection")
+    void canSavePeopleWithAddressesAcrossThreads() throws Exception {
+        Address address = new Address(null, number.digits(6) + " Busy Street", null, "Boston", "MA", "02108", "United States", "Suffolk", Region.NORTH);
+        repository.setRememberAddressIds(true);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<List<Person>>> futures = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            int year = 1950 + i;
+            futures.add(executor.submit(() -> {
+                Person person = new Person(firstName, lastName, ZonedDateTime.of(year, 1, 1, 0, 0, 0, 0, ZoneId.of("+0")));
+                person.setHomeAddress(new Address(null, address.streetAddress(), null, "Boston", "MA", "02108", "United States", "Suffolk", Region.NORTH));
+                return year % 2 == 0 ? List.of(repository.save(person)) : repository.saveAll(List.of(person));
+            }));
+        }
+        for (Future<List<Person>> future : futures) {
+            assertThat(future.get(30, TimeUnit.SECONDS).get(0).getHomeAddress().orElseThrow().id()).isNotNull();
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Can share a pooled repository across threads")
+    void canShareRepositoryAcrossThreads() throws Exception {
+        String url = inMemoryDatabaseUrl();
+        try (Connection schemaConnection = migratedConnection(url);
+             ConnectionPool pool = new ConnectionPool(url, 1, 4, Duration.ofSeconds(5))) {
+            PersonRepository pooledRepository = new PersonRepository(pool);
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            List<Future<Person>> futures = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                int year = 1950 + i;
+                futures.add(executor.submit(() -> {
+                    Person person = new Person(lastName, lastName, ZonedDateTime.of(year, 1, 1, 0, 0, 0, 0, ZoneId.of("+0")));
+                    person.addChild(getRandomChild(lastName, 1));
+                    Person savedPerson = pooledRepository.save(person);
+                    return pooledRepository.findByID(savedPerson.getId()).orElseThrow();
+                }));
+            }
+            for (Future<Person> future : futures) {
+                assertThat(future.get().getChildren()).hasSize(1);
+            }
+            executor.shutdown();
+            assertThat(pool.getActiveCount()).isZero();
+            assertThat(pool.getOpenCount()).isLessThanOrEqualTo(4);
+            assertThat(pooledRepository.getStatementCacheStatistics().hits()).isPositive();
+        }
+    }
+
+    @Test
+    @DisplayName("Closes the statements of a pooled repository without breaking running operations")
+    void closesPooledStatementsSafely() throws Exception {
+        String url = inMemoryDatabaseUrl();
+        try (Connection schemaConnection = migratedConnection(url);
+             ConnectionPool pool = new ConnectionPool(url, 4, 4, Duration.ofSeconds(5))) {
+            PersonRepository pooledRepository = new PersonRepository(pool);
+            Long id = pooledRepository.save(new Person(firstName, lastName, ZonedDateTime.of(1980, 1, 1, 0, 0, 0, 0, ZoneId.of("+0")))).getId();
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            List<Future<Long>> lookups = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                lookups.add(executor.submit(() -> IntStream.range(0, 500)
+                        .filter(lookup -> pooledRepository.findAllByIds(List.of(id)).size() == 1).count()));
+            }
+            while (lookups.stream().anyMatch(lookup -> !lookup.isDone())) {
+                pooledRepository.getStatementCacheStatistics();
+                pooledRepository.close();
+            }
+            for (Future<Long> lookup : lookups) {
+                assertThat(lookup.get()).isEqualTo(500);
+            }
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Can save and find people asynchronously with bounded concurrency")
+    void canUseRepositoryAsynchronously() throws SQLException {
+        String url = inMemoryDatabaseUrl();
+        try (Connection schemaConnection = migratedConnection(url);
+             ConnectionPool pool = new ConnectionPool(url, 1, 4, Duration.ofSeconds(5));
+             AsyncPersonRepository asyncRepository = new AsyncPersonRepository(new PersonRepository(pool), 4)) {
+            List<CompletableFuture<Person>> saves = IntStream.range(0, 50)
+                    .mapToObj(i -> asyncRepository.saveAsync(new Person(lastName, lastName, ZonedDateTime.of(1950 + i, 1, 1, 0, 0, 0, 0, ZoneId.of("+0")))))
+                    .toList();
+            List<Long> ids = saves.stream().map(CompletableFuture::join).map(Person::getId).toList();
+
+            List<Optional<Person>> found = ids.stream().map(asyncRepository::findByIDAsync).map(CompletableFuture::join).toList();
+
+            assertThat(found).allMatch(Optional::isPresent);
+            assertThat(asyncRepository.findAllByIdsAsync(ids).join()).hasSize(50);
+            assertThat(pool.getOpenCount()).isLessThanOrEqualTo(4);
+        }
+    }
+
+    @Test
+    @DisplayName("Reports virtual threads only for its own virtual thread executor")
+    void reportsVirtualThreadsOnlyForOwnExecutor() {
+        try (AsyncPersonRepository platformThreads = new AsyncPersonRepository(repository, 2, Executors.newFixedThreadPool(2));
+             AsyncPersonRepository fallback = new AsyncPersonRepository(repository, 2, null)) {
+            assertThat(platformThreads.isUsingVirtualThreads()).isFalse();
+            assertThat(fallback.isUsingVirtualThreads()).isFalse();
+        }
+    }
+
+    @Test
+    @Disabled("Throughput comparison, run manually")
+    void compareAsyncRepositoryWithFixedThreadPool() throws SQLException {
+        int lookups = 20_000;
+        String url = inMemoryDatabaseUrl();
+        try (Connection schemaConnection = migratedConnection(url);
+             ConnectionPool pool = new ConnectionPool(url, 8, 8, Duration.ofSeconds(30))) {
+            PersonRepository pooledRepository = new PersonRepository(pool);
+            Long id = pooledRepository.save(new Person(firstName, lastName, ZonedDateTime.of(1980, 1, 1, 0, 0, 0, 0, ZoneId.of("+0")))).getId();
+            try (AsyncPersonRepository virtualThreads = new AsyncPersonRepository(pooledRepository, 8);
+                 AsyncPersonRepository fixedThreadPool = new AsyncPersonRepository(pooledRepository, 8, Executors.newFixedThreadPool(8))) {
+                for (AsyncPersonRepository asyncRepository : List.of(virtualThreads, fixedThreadPool)) {
+                    long startTime = System.nanoTime();
+                    IntStream.range(0, lookups)
+                            .mapToObj(i -> asyncRepository.findByIDAsync(id))
+                            .toList()
+                            .forEach(CompletableFuture::join);
+                    long elapsed = System.nanoTime() - startTime;
+                    System.out.printf("%s: %.0f lookups/s%n", asyncRepository == fixedThreadPool ? "fixed thread pool"
+                            : asyncRepository.isUsingVirtualThreads() ? "virtual threads" : "platform thread fallback",
+                            lookups / (elapsed / 1e9));
+                }
+            }
+        }
+    }
+
     @Test
     @DisplayName("Can update user details in the database")
     void canUpdate(){
@@ -256,31 +1252,18 @@ class PeopleRepositoryTests {
     @Test
     @Disabled("Not needed every time")
     @DisplayName("Can alter table in the database")
+    @SuppressWarnings("deprecation")
     void canAlterTable(){
         repository.alterTable();
     }
 
     @Test
     @Disabled("Data only needs to be load once into the database")
-    void loadData() throws IOException, SQLException {
-        long startTime = System.currentTimeMillis();
-        Files.lines(Path.of("src/test/resources/Hr5m.csv"))
-                .skip(1)
-                //.limit(100)
-                .map(line -> line.split(","))
-                .map(arr -> {
-                    LocalDate dateOfBirth = LocalDate.parse(arr[10], DateTimeFormatter.ofPattern("M/d/yyyy"));
-                    LocalTime timeOfBirth = LocalTime.parse(arr[11].toLowerCase(), DateTimeFormatter.ofPattern("hh:mm:ss a"));
-                    LocalDateTime localDateTime = LocalDateTime.of(dateOfBirth, timeOfBirth);
-                    ZonedDateTime zonedDateTime = ZonedDateTime.of(localDateTime, ZoneId.of("+0"));
-                    Person person = new Person(arr[2], arr[4], zonedDateTime);
-                    person.setSalary(new BigDecimal(arr[25]));
-                    person.setEmail(arr[6]);
-                    return person;
-                })
-                .forEach(repository::save);
-        connection.commit();
-        long endTime = System.currentTimeMillis();
-        System.out.printf("Execution Time: %s", endTime - startTime);
+    void loadData() {
+        LoadProgress progress = new PersonBulkLoader(connection)
+                .withCheckpoint(new LoadCheckpoint(Path.of("target/Hr5m.checkpoint")))
+                .withProgressListener(System.out::println)
+                .load(Path.of("src/test/resources/Hr5m.csv"));
+        System.out.printf("Execution Time: %s", TimeUnit.NANOSECONDS.toMillis(progress.elapsedNanos()));
     }
 }
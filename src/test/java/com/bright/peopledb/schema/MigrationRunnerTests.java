@@ -0,0 +1,112 @@
+package com.bright.peopledb.schema;
+
+/*
+ * @Project Name: ProfessionalJavaDeveloper-PeopleDataBase
+ * @Author: Okechukwu Bright Onwumere
+ * @Created: 17/10/2026
+ */
+
+
+import com.bright.peopledb.exception.DataException;
+import com.bright.peopledb.model.Person;
+import com.bright.peopledb.repository.PersonRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MigrationRunnerTests {
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:" + UUID.randomUUID());
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    @DisplayName("Creates the schema of an empty database")
+    void migratesEmptyDatabase() {
+        MigrationRunner runner = new MigrationRunner(connection);
+
+        assertThat(runner.migrate()).containsExactly(1, 2);
+        assertThat(runner.getCurrentVersion()).isEqualTo(2);
+        PersonRepository repository = new PersonRepository(connection);
+        Person person = new Person("Ada", "Lovelace", ZonedDateTime.of(1815, 12, 10, 0, 0, 0, 0, ZoneId.of("+0")));
+        person.setEmail("ada@example.com");
+        repository.save(person);
+        assertThat(repository.findByID(person.getId())).contains(person);
+    }
+
+    @Test
+    @DisplayName("Applies each migration only once")
+    void migratesOnlyOnce() {
+        MigrationRunner runner = new MigrationRunner(connection, MigrationRunner.DEFAULT_LOCATION, List.of("V1__create_tables.sql"));
+        assertThat(runner.migrate()).containsExactly(1);
+
+        assertThat(new MigrationRunner(connection).migrate()).containsExactly(2);
+        assertThat(new MigrationRunner(connection).migrate()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Brings a database created before the migrations up to date")
+    void migratesExistingDatabase() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE ADDRESSES(ID BIGINT AUTO_INCREMENT PRIMARY KEY, STREET_ADDRESS VARCHAR(255), ADDRESS2 VARCHAR(255), CITY VARCHAR(255), STATE VARCHAR(255), POSTCODE VARCHAR(255), COUNTY VARCHAR(255), REGION VARCHAR(255), COUNTRY VARCHAR(255))");
+            statement.execute("CREATE TABLE PERSON(ID BIGINT AUTO_INCREMENT PRIMARY KEY, FIRST_NAME VARCHAR(255), LAST_NAME VARCHAR(255), DOB TIMESTAMP, SALARY DECIMAL(15,2) DEFAULT 0, HOME_ADDRESS BIGINT REFERENCES ADDRESSES(ID), BUSINESS_ADDRESS BIGINT REFERENCES ADDRESSES(ID), PARENT_ID BIGINT REFERENCES PERSON(ID))");
+            statement.execute("INSERT INTO PERSON (FIRST_NAME, LAST_NAME) VALUES('Grace', 'Hopper')");
+        }
+
+        assertThat(new MigrationRunner(connection).migrate()).containsExactly(1, 2);
+        PersonRepository repository = new PersonRepository(connection);
+        assertThat(repository.count()).isEqualTo(1);
+        Person person = new Person("Grace", "Hopper", ZonedDateTime.of(1906, 12, 9, 0, 0, 0, 0, ZoneId.of("+0")));
+        person.setEmail("grace@example.com");
+        assertThat(repository.upsertAllByEmail(List.of(person)).inserted()).isEqualTo(1);
+        new IndexVerifier(connection).verify();
+    }
+
+    @Test
+    @DisplayName("Refuses to run when an applied migration has changed")
+    void rejectsChangedMigrations() throws SQLException {
+        new MigrationRunner(connection).migrate();
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE SCHEMA_VERSION SET CHECKSUM = 0 WHERE VERSION = 1");
+        }
+
+        assertThatThrownBy(() -> new MigrationRunner(connection).migrate())
+                .isInstanceOf(DataException.class)
+                .hasMessageContaining("V1__create_tables");
+    }
+
+    @Test
+    @DisplayName("Verifies with EXPLAIN that the hot queries use their indexes")
+    void verifiesIndexes() {
+        new MigrationRunner(connection, MigrationRunner.DEFAULT_LOCATION, List.of("V1__create_tables.sql")).migrate();
+        IndexVerifier verifier = new IndexVerifier(connection);
+        assertThat(verifier.check()).noneMatch(IndexCheck::usesIndexes);
+        assertThatThrownBy(verifier::verify).isInstanceOf(DataException.class).hasMessageContaining("PERSON.PARENT_ID");
+
+        new MigrationRunner(connection).migrate();
+
+        assertThat(verifier.check()).hasSize(6).allMatch(IndexCheck::usesIndexes);
+        verifier.verify();
+    }
+}